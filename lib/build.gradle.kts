@@ -10,6 +10,15 @@ dependencies {
     implementation("com.google.code.gson:gson:2.11.0")
     implementation("com.fasterxml.jackson.core:jackson-databind:2.15.2")
     implementation("com.fasterxml.jackson.datatype:jackson-datatype-jsr310:2.15.2")
+    implementation("com.fasterxml.jackson.module:jackson-module-blackbird:2.15.2")
+
+    testImplementation(platform("org.junit:junit-bom:5.11.3"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+tasks.test {
+    useJUnitPlatform()
 }
 
 application {
@@ -21,3 +30,19 @@ java {
         languageVersion.set(JavaLanguageVersion.of(21))
     }
 }
+
+// Micro-benchmarks kept out of the application jar: ./gradlew :lib:codecBenchmark
+val benchmark by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[benchmark.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[benchmark.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
+tasks.register<JavaExec>("codecBenchmark") {
+    group = "verification"
+    description = "Compares the Gson and Jackson JSON codecs on realistic payloads."
+    classpath = benchmark.runtimeClasspath
+    mainClass.set("benchmark.CodecBenchmark")
+}
@@ -0,0 +1,142 @@
+package benchmark;
+
+import model.Dumpster;
+import model.RecyclingPlant;
+import model.UsageRecord;
+import service.JsonCodec;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Compara los codecs JSON (Gson y Jackson) decodificando cargas con la forma real de la API:
+ * la flota completa de /dumpsters, el catálogo de /recyclingPlants y un histórico de uso.
+ * Uso: ./gradlew :lib:codecBenchmark [--args="dumpsters plants usageDays"]
+ */
+public class CodecBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final String[] FILL_LEVELS = {"GREEN", "ORANGE", "RED"};
+
+    public static void main(String[] args) {
+        int dumpsters = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int plants = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+        int usageDays = args.length > 2 ? Integer.parseInt(args[2]) : 365;
+
+        Random random = new Random(42);
+        String plantsJson = plantsJson(plants, random);
+        String dumpstersJson = dumpstersJson(dumpsters, plants, random);
+        String usageJson = usageJson(usageDays, random);
+
+        System.out.printf("Payloads: dumpsters=%d (%d KB), plants=%d (%d KB), usage=%d (%d KB)%n",
+                dumpsters, dumpstersJson.length() / 1024,
+                plants, plantsJson.length() / 1024,
+                usageDays, usageJson.length() / 1024);
+
+        for (String codecName : List.of("gson", "jackson")) {
+            JsonCodec codec = JsonCodec.forName(codecName);
+            run(codec, "dumpsters/list", () -> codec.listFromJson(dumpstersJson, Dumpster.class).size());
+            run(codec, "dumpsters/stream", () -> {
+                byte[] bytes = dumpstersJson.getBytes(StandardCharsets.UTF_8);
+                try (Stream<Dumpster> stream = codec.streamArray(new ByteArrayInputStream(bytes), Dumpster.class)) {
+                    return (int) stream.count();
+                }
+            });
+            run(codec, "plants/list", () -> codec.listFromJson(plantsJson, RecyclingPlant.class).size());
+            run(codec, "usage/list", () -> codec.listFromJson(usageJson, UsageRecord.class).size());
+        }
+    }
+
+    private static void run(JsonCodec codec, String scenario, Task task) {
+        try {
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                task.run();
+            }
+
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            int items = 0;
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                items = task.run();
+            }
+            long elapsed = System.nanoTime() - start;
+            long allocated = allocatedBytes() - allocatedBefore;
+
+            System.out.printf("%-8s %-18s %8.2f ms/op %10.1f ns/item %10.1f KB alloc/op%n",
+                    codec.name(), scenario,
+                    elapsed / 1e6 / MEASURED_ROUNDS,
+                    items == 0 ? 0.0 : (double) elapsed / MEASURED_ROUNDS / items,
+                    allocated / 1024.0 / MEASURED_ROUNDS);
+        } catch (Exception e) {
+            System.out.printf("%-8s %-18s failed: %s%n", codec.name(), scenario, e);
+        }
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads) {
+            return threads.getThreadAllocatedBytes(Thread.currentThread().threadId());
+        }
+        return 0;
+    }
+
+    private static String plantJson(int index, Random random) {
+        return "{\"name\":\"Plant-" + index + "\""
+                + ",\"location\":\"Polígono Industrial " + index + "\""
+                + ",\"postalCode\":" + (28000 + random.nextInt(900))
+                + ",\"maxCapacity\":" + (50_000 + random.nextInt(50_000))
+                + ",\"currentFill\":" + random.nextInt(50_000)
+                + ",\"assignments\":[]}";
+    }
+
+    private static String plantsJson(int count, Random random) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) json.append(',');
+            json.append(plantJson(i, random));
+        }
+        return json.append(']').toString();
+    }
+
+    private static String dumpstersJson(int count, int plants, Random random) {
+        StringBuilder json = new StringBuilder(count * 220).append('[');
+        for (int i = 0; i < count; i++) {
+            int capacity = 500 + random.nextInt(2500);
+            if (i > 0) json.append(',');
+            json.append("{\"id\":").append(i + 1)
+                    .append(",\"address\":\"Calle ").append(random.nextInt(500)).append(", ").append(i % 97).append("\"")
+                    .append(",\"postalCode\":").append(28000 + random.nextInt(900))
+                    .append(",\"capacity\":").append(capacity)
+                    .append(",\"currentFill\":").append(random.nextInt(capacity))
+                    .append(",\"fillLevel\":\"").append(FILL_LEVELS[random.nextInt(3)]).append('"');
+            if (plants > 0 && random.nextInt(3) > 0) {
+                json.append(",\"assignedPlant\":").append(plantJson(random.nextInt(plants), random));
+            }
+            json.append('}');
+        }
+        return json.append(']').toString();
+    }
+
+    private static String usageJson(int days, Random random) {
+        StringBuilder json = new StringBuilder("[");
+        LocalDate date = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < days; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"dumpsterId\":").append(1 + random.nextInt(100))
+                    .append(",\"date\":\"").append(date.plusDays(i)).append('"')
+                    .append(",\"estimatedNumCont\":").append(random.nextInt(400))
+                    .append(",\"fillLevel\":\"").append(FILL_LEVELS[random.nextInt(3)]).append("\"}");
+        }
+        return json.append(']').toString();
+    }
+
+    @FunctionalInterface
+    private interface Task {
+        int run() throws Exception;
+    }
+}
@@ -0,0 +1,179 @@
+package controller;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Sondeo periódico en segundo plano que adapta el intervalo al ritmo de cambios:
+ * se acorta a la mitad cuando una consulta trae cambios y se alarga un 50% cuando no,
+ * siempre entre minInterval y maxInterval. Tras un error se espera el doble por cada
+ * fallo seguido. Cada espera lleva un ±20% aleatorio para que muchos clientes arrancados
+ * a la vez no consulten al servidor en el mismo instante.
+ * Mientras está en pausa no se consulta; resume() y pollNow() consultan en el acto.
+ * Mientras skip indique que no hace falta consultar se vuelve a comprobar cada minInterval,
+ * para retomar el sondeo en cuanto deje de ser así.
+ */
+public class AdaptivePoller implements AutoCloseable {
+
+    public static final Duration DEFAULT_MIN_INTERVAL = Duration.ofSeconds(5);
+    public static final Duration DEFAULT_INITIAL_INTERVAL = Duration.ofSeconds(30);
+    public static final Duration DEFAULT_MAX_INTERVAL = Duration.ofMinutes(5);
+
+    private static final double JITTER = 0.2;
+
+    private final Supplier<CompletableFuture<Boolean>> poll;
+    private final BooleanSupplier skip;
+    private final long minMillis;
+    private final long maxMillis;
+    private final ScheduledExecutorService scheduler;
+
+    private long intervalMillis;
+    private int consecutiveFailures;
+    private boolean paused = true;
+    private boolean polling;
+    private boolean closed;
+    private ScheduledFuture<?> next;
+
+    /**
+     * @param poll consulta; su resultado indica si trajo cambios
+     * @param skip mientras devuelva true no se consulta (p. ej. porque llegan cambios por push)
+     */
+    public AdaptivePoller(Supplier<CompletableFuture<Boolean>> poll, BooleanSupplier skip) {
+        this(poll, skip, DEFAULT_MIN_INTERVAL, DEFAULT_INITIAL_INTERVAL, DEFAULT_MAX_INTERVAL);
+    }
+
+    public AdaptivePoller(Supplier<CompletableFuture<Boolean>> poll, BooleanSupplier skip,
+                          Duration minInterval, Duration initialInterval, Duration maxInterval) {
+        if (minInterval.isNegative() || minInterval.isZero() || maxInterval.compareTo(minInterval) < 0) {
+            throw new IllegalArgumentException("Intervalos de sondeo inválidos");
+        }
+        this.poll = poll;
+        this.skip = skip;
+        this.minMillis = minInterval.toMillis();
+        this.maxMillis = maxInterval.toMillis();
+        this.intervalMillis = clamp(initialInterval.toMillis());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "dumpster-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Empieza (o reanuda) el sondeo con una consulta inmediata
+     */
+    public synchronized void resume() {
+        if (closed || !paused) return;
+        paused = false;
+        schedule(0);
+    }
+
+    /**
+     * Consulta en el acto (p. ej. al volver el usuario a la ventana), reanudando si estaba en pausa.
+     * Si ya hay una consulta en vuelo no se lanza otra.
+     */
+    public synchronized void pollNow() {
+        if (closed) return;
+        paused = false;
+        if (!polling) {
+            schedule(0);
+        }
+    }
+
+    /**
+     * Deja de consultar; una consulta ya en vuelo termina pero no programa la siguiente
+     */
+    public synchronized void pause() {
+        paused = true;
+        cancelNext();
+    }
+
+    public synchronized boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Intervalo actual sin aleatoriedad, teniendo en cuenta los errores seguidos
+     */
+    public synchronized Duration getCurrentInterval() {
+        return Duration.ofMillis(currentDelay());
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        paused = true;
+        cancelNext();
+        scheduler.shutdownNow();
+    }
+
+    private void schedule(long delayMillis) {
+        cancelNext();
+        next = scheduler.schedule(this::run, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelNext() {
+        if (next != null) {
+            next.cancel(false);
+            next = null;
+        }
+    }
+
+    private void run() {
+        synchronized (this) {
+            if (paused || polling) return;
+            if (skip != null && skip.getAsBoolean()) {
+                schedule(jittered(minMillis));
+                return;
+            }
+            polling = true;
+        }
+
+        CompletableFuture<Boolean> call;
+        try {
+            call = poll.get();
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.whenComplete((changed, error) -> {
+            synchronized (this) {
+                polling = false;
+                if (error != null) {
+                    consecutiveFailures++;
+                } else {
+                    consecutiveFailures = 0;
+                    intervalMillis = Boolean.TRUE.equals(changed)
+                            ? clamp(intervalMillis / 2)
+                            : clamp(intervalMillis * 3 / 2);
+                }
+                if (!paused && !closed) {
+                    schedule(jittered(currentDelay()));
+                }
+            }
+        });
+    }
+
+    private long currentDelay() {
+        long delay = intervalMillis;
+        for (int i = 0; i < consecutiveFailures && delay < maxMillis; i++) {
+            delay *= 2;
+        }
+        return clamp(delay);
+    }
+
+    private long clamp(long millis) {
+        return Math.max(minMillis, Math.min(maxMillis, millis));
+    }
+
+    private static long jittered(long millis) {
+        double factor = 1 - JITTER + ThreadLocalRandom.current().nextDouble() * 2 * JITTER;
+        return Math.round(millis * factor);
+    }
+}
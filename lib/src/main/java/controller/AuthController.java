@@ -1,19 +1,21 @@
 package controller;
 
 import service.AuthServiceClient;
+import utils.ServiceExecutor;
 import utils.SessionManager;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controlador que maneja la lógica de autenticación
  */
 public class AuthController {
 
-    private final AuthServiceClient authService;
+    private final String baseUrl;
 
     public AuthController(String baseUrl) {
-        this.authService = new AuthServiceClient(baseUrl);
+        this.baseUrl = baseUrl;
     }
 
     /**
@@ -33,7 +35,7 @@ public class AuthController {
         }
 
         try {
-            Optional<String> token = authService.login(email.trim(), password);
+            Optional<String> token = authService().login(email.trim(), password);
             
             if (token.isPresent()) {
                 // Guardar sesión
@@ -48,6 +50,13 @@ public class AuthController {
         }
     }
 
+    /**
+     * login en un hilo virtual de ServiceExecutor
+     */
+    public CompletableFuture<LoginResult> loginAsync(String email, String password) {
+        return ServiceExecutor.submit(() -> login(email, password));
+    }
+
     /**
      * Cierra la sesión del usuario actual
      */
@@ -58,7 +67,7 @@ public class AuthController {
                 return LogoutResult.failure("No hay sesión activa");
             }
 
-            boolean success = authService.logout(token);
+            boolean success = authService().logout(token);
             
             if (success) {
                 SessionManager.getInstance().clearSession();
@@ -73,6 +82,10 @@ public class AuthController {
         }
     }
 
+    public CompletableFuture<LogoutResult> logoutAsync() {
+        return ServiceExecutor.submit(this::logout);
+    }
+
     /**
      * Verifica si el usuario tiene una sesión activa
      */
@@ -87,6 +100,14 @@ public class AuthController {
         return SessionManager.getInstance().getUserEmail();
     }
 
+    /**
+     * El cliente se resuelve en cada llamada porque el transporte pertenece a la sesión
+     * y se cierra al hacer logout
+     */
+    private AuthServiceClient authService() {
+        return new AuthServiceClient(baseUrl, SessionManager.getInstance().getTransport());
+    }
+
     /**
      * Validación básica de formato de email
      */
@@ -0,0 +1,87 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de una asignación masiva de dumpsters a una planta.
+ * Cada lote se envía en una petición independiente, así que el resultado
+ * puede ser parcial: se conserva el resultado de cada lote.
+ */
+public class BulkAssignResult {
+
+    private final String plantName;
+    private final List<BatchResult> batches;
+
+    public BulkAssignResult(String plantName, List<BatchResult> batches) {
+        this.plantName = plantName;
+        this.batches = List.copyOf(batches);
+    }
+
+    public String getPlantName() {
+        return plantName;
+    }
+
+    public List<BatchResult> getBatches() {
+        return batches;
+    }
+
+    public List<Long> getAssignedIds() {
+        List<Long> ids = new ArrayList<>();
+        for (BatchResult batch : batches) {
+            if (batch.isSuccess()) {
+                ids.addAll(batch.getDumpsterIds());
+            }
+        }
+        return ids;
+    }
+
+    public List<Long> getFailedIds() {
+        List<Long> ids = new ArrayList<>();
+        for (BatchResult batch : batches) {
+            if (!batch.isSuccess()) {
+                ids.addAll(batch.getDumpsterIds());
+            }
+        }
+        return ids;
+    }
+
+    public boolean isSuccess() {
+        return batches.stream().allMatch(BatchResult::isSuccess);
+    }
+
+    /**
+     * Resultado de un lote
+     */
+    public static class BatchResult {
+        private final List<Long> dumpsterIds;
+        private final boolean success;
+        private final String message;
+
+        private BatchResult(List<Long> dumpsterIds, boolean success, String message) {
+            this.dumpsterIds = dumpsterIds;
+            this.success = success;
+            this.message = message;
+        }
+
+        public static BatchResult success(List<Long> dumpsterIds) {
+            return new BatchResult(dumpsterIds, true, "Asignación correcta");
+        }
+
+        public static BatchResult failure(List<Long> dumpsterIds, String message) {
+            return new BatchResult(dumpsterIds, false, message);
+        }
+
+        public List<Long> getDumpsterIds() {
+            return dumpsterIds;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package controller;
+
+import utils.Futures;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Limita el número de operaciones asíncronas en vuelo sin bloquear hilos.
+ * Las tareas que superan el límite esperan en cola y se lanzan cuando termina otra;
+ * las que se cancelan mientras esperan no llegan a ejecutarse.
+ */
+public class ConcurrencyLimiter {
+
+    private final int maxConcurrency;
+    private final Queue<PendingTask<?>> pending = new ArrayDeque<>();
+    private final AtomicInteger drainRequests = new AtomicInteger();
+    private int running;
+
+    public ConcurrencyLimiter(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency debe ser al menos 1");
+        }
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Encola la operación y devuelve un futuro con su resultado
+     */
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> operation) {
+        PendingTask<T> task = new PendingTask<>(operation);
+        synchronized (this) {
+            pending.add(task);
+        }
+        drain();
+        return task.result;
+    }
+
+    public synchronized int getQueuedCount() {
+        return pending.size();
+    }
+
+    public synchronized int getRunningCount() {
+        return running;
+    }
+
+    private void onTaskFinished() {
+        synchronized (this) {
+            running--;
+        }
+        drain();
+    }
+
+    // Bucle no reentrante: si una tarea termina de forma síncrona dentro de start(),
+    // la siguiente se lanza desde este mismo bucle en lugar de anidar la pila.
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        while (true) {
+            while (true) {
+                PendingTask<?> next;
+                synchronized (this) {
+                    if (running >= maxConcurrency) {
+                        break;
+                    }
+                    next = pending.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    if (next.result.isDone()) {
+                        continue;
+                    }
+                    running++;
+                }
+                next.start();
+            }
+            missed = drainRequests.addAndGet(-missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
+
+    private class PendingTask<T> {
+        private final Supplier<CompletableFuture<T>> operation;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        PendingTask(Supplier<CompletableFuture<T>> operation) {
+            this.operation = operation;
+        }
+
+        void start() {
+            CompletableFuture<T> call;
+            try {
+                call = operation.get();
+            } catch (RuntimeException e) {
+                call = CompletableFuture.failedFuture(e);
+            }
+            Futures.propagateCancellation(result, call);
+            call.whenComplete((value, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(Futures.unwrap(error));
+                } else {
+                    result.complete(value);
+                }
+                onTaskFinished();
+            });
+        }
+    }
+}
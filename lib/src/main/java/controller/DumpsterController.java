@@ -1,49 +1,309 @@
 package controller;
 
 import model.Dumpster;
+import model.DumpsterDelta;
 import model.RecyclingPlant;
+import service.DumpsterEventStream;
 import service.DumpsterServiceClient;
+import service.HttpTransport;
 import service.PlantServiceClient;
+import utils.Futures;
+import utils.ServiceExecutor;
 import utils.SessionManager;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Controlador que maneja la lógica de negocio relacionada con dumpsters.
  * Actúa como intermediario entre la UI y los servicios.
+ * Cada operación tiene una variante asíncrona (sufijo Async) que devuelve un CompletableFuture
+ * y completa con ControllerException en caso de error.
+ * Las lecturas idénticas concurrentes (mismo endpoint, parámetros y token) comparten una sola petición.
+ * El catálogo de plantas y su capacidad por (planta, fecha) se cachean durante la sesión y se
+ * invalidan al asignar dumpsters a la planta.
  */
 public class DumpsterController {
 
+    // Lotes de la asignación masiva: suficientes para ocupar todas las peticiones en paralelo,
+    // pero sin pasar de BULK_ASSIGN_MAX_BATCH ids por petición
+    static final int BULK_ASSIGN_CONCURRENCY = 4;
+    static final int BULK_ASSIGN_MIN_BATCH = 20;
+    static final int BULK_ASSIGN_MAX_BATCH = 100;
+
+    static final Duration PLANT_CACHE_TTL = Duration.ofMinutes(5);
+    static final Duration CAPACITY_CACHE_TTL = Duration.ofSeconds(60);
+    static final int CAPACITY_CACHE_SIZE = 256;
+    static final int USAGE_CACHE_DUMPSTERS = 64;
+    static final int USAGE_EXPORT_CONCURRENCY = 6;
+    // El catálogo del disco solo cubre el arranque, mientras se descarga el actual
+    static final Duration PERSISTED_PLANTS_MAX_AGE = Duration.ofMinutes(1);
+
+    private final String baseUrl;
+    private final HttpTransport transport;
     private final DumpsterServiceClient dumpsterService;
     private final PlantServiceClient plantService;
+    private final DumpsterRepository dumpsterRepository;
+    private final FillUpdateQueue fillUpdates;
+    private final SingleFlight reads = new SingleFlight();
+    private final ExpiringCache<String, List<RecyclingPlant>> plantCache =
+            new ExpiringCache<>(1, PLANT_CACHE_TTL);
+    private final ExpiringCache<CapacityKey, Optional<Integer>> capacityCache =
+            new ExpiringCache<>(CAPACITY_CACHE_SIZE, CAPACITY_CACHE_TTL);
+    private final UsageHistoryCache usageCache = new UsageHistoryCache(USAGE_CACHE_DUMPSTERS);
+    private final SnapshotFile snapshotFile;
+    // Catálogo leído del disco al arrancar; se sirve mientras se descarga el actual
+    private volatile PersistedPlants persistedPlants;
+    // Lectura de la copia en disco, fuera del hilo que crea el controlador (normalmente el EDT)
+    private final CompletableFuture<Void> restored;
+    private DumpsterEventStream liveUpdates;
+    private String lastEventId;
+    private volatile DumpsterEventStream.State liveState = DumpsterEventStream.State.CLOSED;
+    // Sincronizaciones que han cambiado la copia local; el sondeo adaptativo lo usa para medir el ritmo
+    private final AtomicLong dumpsterChanges = new AtomicLong();
 
     public DumpsterController(String baseUrl) {
-        this.dumpsterService = new DumpsterServiceClient(baseUrl);
-        this.plantService = new PlantServiceClient(baseUrl);
+        this(baseUrl, SessionManager.getInstance().getTransport(), snapshotFileForCurrentUser());
+    }
+
+    public DumpsterController(String baseUrl, HttpTransport transport) {
+        this(baseUrl, transport, null);
     }
 
     /**
-     * Obtiene todos los dumpsters del usuario autenticado
+     * @param snapshotFile copia en disco con la que arrancar y que se mantiene al día; puede ser null
      */
-    public List<Dumpster> getAllDumpsters() throws ControllerException {
+    public DumpsterController(String baseUrl, HttpTransport transport, SnapshotFile snapshotFile) {
+        this.baseUrl = baseUrl;
+        this.transport = transport;
+        this.dumpsterService = new DumpsterServiceClient(baseUrl, transport);
+        this.plantService = new PlantServiceClient(baseUrl, transport);
+        this.dumpsterRepository = new DumpsterRepository(dumpsterService, DumpsterRepository.DEFAULT_TTL, snapshotFile);
+        this.fillUpdates = new FillUpdateQueue(this::updateDumpsterFillAsync);
+        this.snapshotFile = snapshotFile;
+        dumpsterRepository.getStore().addListener(changes -> dumpsterChanges.incrementAndGet());
+
+        this.restored = snapshotFile != null
+                ? ServiceExecutor.submit(this::restoreSnapshot)
+                : CompletableFuture.completedFuture(null);
+    }
+
+    private Void restoreSnapshot() {
         try {
-            String token = SessionManager.getInstance().getAuthToken();
-            return dumpsterService.getAllDumpsters(token);
-        } catch (IllegalStateException e) {
-            throw new ControllerException("Sesión no válida. Por favor, vuelva a iniciar sesión.", e);
-        } catch (Exception e) {
-            throw new ControllerException("Error al cargar los dumpsters: " + e.getMessage(), e);
+            SnapshotFile.Snapshot snapshot = snapshotFile.load();
+            if (snapshot != null) {
+                dumpsterRepository.restore(snapshot);
+                if (!snapshot.getPlants().isEmpty()) {
+                    persistedPlants = new PersistedPlants(Collections.unmodifiableList(snapshot.getPlants()),
+                            System.nanoTime() + PERSISTED_PLANTS_MAX_AGE.toNanos());
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Warning: could not restore the saved snapshot: " + e.getMessage());
+        }
+        return null;
+    }
+
+    private static SnapshotFile snapshotFileForCurrentUser() {
+        String email = SessionManager.getInstance().getUserEmail();
+        return email != null && !email.isBlank() ? SnapshotFile.forUser(email) : null;
+    }
+
+    /**
+     * Obtiene todos los dumpsters del usuario autenticado.
+     * Se sirven desde la copia de la sesión mientras siga vigente.
+     */
+    public List<Dumpster> getAllDumpsters() throws ControllerException {
+        return await(getAllDumpstersAsync());
+    }
+
+    public CompletableFuture<List<Dumpster>> getAllDumpstersAsync() {
+        return loadDumpsters(false);
+    }
+
+    /**
+     * Última copia conocida (de esta sesión o guardada en disco) sin consultar al servidor,
+     * o null si no hay ninguna. La copia en disco se lee en segundo plano al crear el controlador;
+     * si aún no está, llega después a los listeners de dumpsters.
+     */
+    public List<Dumpster> getCachedDumpsters() {
+        return dumpsterRepository.getSnapshot();
+    }
+
+    /**
+     * Revalida el listado con el servidor aunque la copia local siga vigente
+     */
+    public List<Dumpster> refreshDumpsters() throws ControllerException {
+        return await(refreshDumpstersAsync());
+    }
+
+    public CompletableFuture<List<Dumpster>> refreshDumpstersAsync() {
+        return loadDumpsters(true);
+    }
+
+    private CompletableFuture<List<Dumpster>> loadDumpsters(boolean revalidate) {
+        if (!restored.isDone()) {
+            // Se espera a la copia en disco para revalidarla con sus validadores en vez de descargarlo todo
+            return restored.thenCompose(ignored -> loadDumpsters(revalidate));
+        }
+        String token = SessionManager.getInstance().getAuthToken();
+        // Una carga en vuelo ya está yendo al servidor, así que sirve también a quien pide revalidar
+        return reads.execute(SingleFlight.key("dumpsters", token),
+                () -> translate(dumpsterRepository.getDumpsters(token, revalidate),
+                        "Sesión no válida. Por favor, vuelva a iniciar sesión.", "Error al cargar los dumpsters: "));
+    }
+
+    /**
+     * Suscribe a las altas, modificaciones y bajas que traiga cada sincronización.
+     * El listener se invoca fuera del EDT.
+     */
+    public void addDumpsterListener(DumpsterStore.Listener listener) {
+        dumpsterRepository.getStore().addListener(listener);
+    }
+
+    public void removeDumpsterListener(DumpsterStore.Listener listener) {
+        dumpsterRepository.getStore().removeListener(listener);
+    }
+
+    /**
+     * Se suscribe a los cambios que publica el servidor y los aplica a la copia local, de modo
+     * que los listeners de dumpsters reciben cada cambio de llenado o asignación sin refrescar.
+     * Al reanudar tras stopLiveUpdates se pide al servidor continuar desde el último evento.
+     * @param onStateChanged estado de la conexión, invocado fuera del EDT; puede ser null
+     */
+    public synchronized void startLiveUpdates(Consumer<DumpsterEventStream.State> onStateChanged) {
+        if (liveUpdates != null) {
+            return;
+        }
+        String token = SessionManager.getInstance().getAuthToken();
+        liveUpdates = new DumpsterEventStream(baseUrl, transport, token, new DumpsterEventStream.Listener() {
+            @Override
+            public void onDumpster(Dumpster dumpster) {
+                applyPushed(dumpster);
+            }
+
+            @Override
+            public void onRemoved(long dumpsterId) {
+                dumpsterRepository.getStore().applyDelta(new DumpsterDelta(null, List.of(), List.of(dumpsterId)));
+            }
+
+            @Override
+            public void onStateChanged(DumpsterEventStream.State state) {
+                liveState = state;
+                if (onStateChanged != null) {
+                    onStateChanged.accept(state);
+                }
+            }
+        });
+        liveUpdates.start(lastEventId);
+    }
+
+    public synchronized void stopLiveUpdates() {
+        if (liveUpdates != null) {
+            lastEventId = liveUpdates.getLastEventId();
+            liveUpdates.close();
+            liveUpdates = null;
+        }
+    }
+
+    /**
+     * true mientras la suscripción está conectada y la copia local se mantiene al día sola
+     */
+    public boolean isLive() {
+        return liveState == DumpsterEventStream.State.CONNECTED;
+    }
+
+    /**
+     * Sondeo en segundo plano del listado para cuando no llegan actualizaciones en vivo.
+     * Cada consulta revalida con el servidor; mientras la suscripción está conectada no se consulta.
+     * El sondeo empieza en pausa: se arranca con resume() y se cierra con close().
+     */
+    public AdaptivePoller createDumpsterPoller() {
+        return new AdaptivePoller(this::pollDumpstersAsync, this::isLive);
+    }
+
+    private CompletableFuture<Boolean> pollDumpstersAsync() {
+        long before = dumpsterChanges.get();
+        return refreshDumpstersAsync().thenApply(dumpsters -> dumpsterChanges.get() != before);
+    }
+
+    // Un evento puede traer solo los campos que cambian; el resto se conserva de la copia local.
+    // La mezcla se hace con el lock del almacén para no pisar una sincronización concurrente.
+    private void applyPushed(Dumpster pushed) {
+        boolean[] unknown = new boolean[1];
+        dumpsterRepository.getStore().update(pushed.getId(), current -> {
+            if (current == null) {
+                // Un dumpster nuevo a medias no se inserta: la próxima lectura lo descargará entero
+                unknown[0] = !isComplete(pushed);
+                return unknown[0] ? null : pushed;
+            }
+            if (pushed.getLocation() != null) current.setLocation(pushed.getLocation());
+            if (pushed.getPostalCode() != null) current.setPostalCode(pushed.getPostalCode());
+            if (pushed.getCapacity() != null) current.setCapacity(pushed.getCapacity());
+            if (pushed.getCurrentFill() != null) current.setCurrentFill(pushed.getCurrentFill());
+            if (pushed.getFillLevel() != null) current.setFillLevel(pushed.getFillLevel());
+            if (pushed.getAssignedPlant() != null) current.setAssignedPlant(pushed.getAssignedPlant());
+            return current;
+        });
+        if (unknown[0]) {
+            dumpsterRepository.invalidate();
         }
     }
 
+    private static boolean isComplete(Dumpster dumpster) {
+        return dumpster.getLocation() != null && dumpster.getPostalCode() != null
+                && dumpster.getCapacity() != null && dumpster.getCurrentFill() != null;
+    }
+
     /**
-     * Crea un nuevo dumpster con validación de datos
+     * Crea un nuevo dumpster con validación de datos.
+     * El dumpster devuelto por el servidor se añade directamente a la copia local.
      */
-    public Dumpster createDumpster(String location, int postalCode, int capacity, int currentFill) 
+    public Dumpster createDumpster(String location, int postalCode, int capacity, int currentFill)
+            throws ControllerException {
+        return await(createDumpsterAsync(location, postalCode, capacity, currentFill));
+    }
+
+    public CompletableFuture<Dumpster> createDumpsterAsync(String location, int postalCode, int capacity,
+                                                           int currentFill) {
+        try {
+            validateNewDumpster(location, postalCode, capacity, currentFill);
+        } catch (ControllerException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        String token = SessionManager.getInstance().getAuthToken();
+        Dumpster dumpster = new Dumpster(null, location, postalCode, capacity, currentFill, null, null);
+        CompletableFuture<Dumpster> call = dumpsterService.createDumpsterAsync(dumpster, token);
+        CompletableFuture<Dumpster> creation = Futures.propagateCancellation(call.whenComplete((created, error) -> {
+            if (created != null && created.getId() != null) {
+                dumpsterRepository.getStore().put(created);
+            }
+        }), call);
+        return translate(invalidatingOnFailure(creation, created -> created != null && created.getId() != null),
+                "Sesión no válida", "Error al crear el dumpster: ");
+    }
+
+    private void validateNewDumpster(String location, int postalCode, int capacity, int currentFill)
             throws ControllerException {
-        
         // Validación de negocio
         if (location == null || location.trim().isEmpty()) {
             throw new ControllerException("La ubicación no puede estar vacía");
@@ -57,112 +317,550 @@ public class DumpsterController {
         if (currentFill < 0 || currentFill > capacity) {
             throw new ControllerException("El llenado actual debe estar entre 0 y " + capacity);
         }
-
-        try {
-            String token = SessionManager.getInstance().getAuthToken();
-            Dumpster dumpster = new Dumpster(null, location, postalCode, capacity, currentFill, null, null);
-            return dumpsterService.createDumpster(dumpster, token);
-        } catch (IllegalStateException e) {
-            throw new ControllerException("Sesión no válida", e);
-        } catch (Exception e) {
-            throw new ControllerException("Error al crear el dumpster: " + e.getMessage(), e);
-        }
     }
 
     /**
-     * Actualiza el nivel de llenado de un dumpster
+     * Actualiza el nivel de llenado de un dumpster.
+     * La copia local se actualiza antes de enviar la petición y se deshace si el servidor
+     * la rechaza o falla.
      */
     public boolean updateDumpsterFill(long dumpsterId, int currentFill) throws ControllerException {
+        return await(updateDumpsterFillAsync(dumpsterId, currentFill));
+    }
+
+    public CompletableFuture<Boolean> updateDumpsterFillAsync(long dumpsterId, int currentFill) {
         if (currentFill < 0) {
-            throw new ControllerException("El nivel de llenado no puede ser negativo");
+            return CompletableFuture.failedFuture(
+                    new ControllerException("El nivel de llenado no puede ser negativo"));
         }
 
-        try {
-            String token = SessionManager.getInstance().getAuthToken();
-            return dumpsterService.updateDumpsterInfo(dumpsterId, currentFill, token);
-        } catch (IllegalStateException e) {
-            throw new ControllerException("Sesión no válida", e);
-        } catch (Exception e) {
-            throw new ControllerException("Error al actualizar el dumpster: " + e.getMessage(), e);
+        Runnable rollback = applyOptimistic(dumpsterId, dumpster -> dumpster.setCurrentFill(currentFill));
+
+        String token = SessionManager.getInstance().getAuthToken();
+        CompletableFuture<Boolean> call = dumpsterService.updateDumpsterInfoAsync(dumpsterId, currentFill, token);
+        CompletableFuture<Boolean> update = Futures.propagateCancellation(call.whenComplete((updated, error) -> {
+            if (!Boolean.TRUE.equals(updated)) {
+                rollback.run();
+            }
+        }), call);
+        return translate(invalidatingOnFailure(update, Boolean.TRUE::equals),
+                "Sesión no válida", "Error al actualizar el dumpster: ");
+    }
+
+    /**
+     * Encola una lectura de llenado para enviarla en segundo plano. Las lecturas de un mismo
+     * dumpster que aún no se han enviado se fusionan y gana la última; el futuro se completa
+     * con el resultado del envío o con la ControllerException de ese dumpster.
+     */
+    public CompletableFuture<Boolean> queueDumpsterFillUpdate(long dumpsterId, int currentFill) {
+        if (currentFill < 0) {
+            return CompletableFuture.failedFuture(
+                    new ControllerException("El nivel de llenado no puede ser negativo"));
         }
+        return fillUpdates.submit(dumpsterId, currentFill);
+    }
+
+    /**
+     * Envía las lecturas encoladas y espera a que terminen todas
+     */
+    public void flushFillUpdates() throws ControllerException {
+        await(flushFillUpdatesAsync());
+    }
+
+    public CompletableFuture<Void> flushFillUpdatesAsync() {
+        return fillUpdates.flush();
+    }
+
+    public int getPendingFillUpdates() {
+        return fillUpdates.getPendingCount() + fillUpdates.getInFlightCount();
     }
 
     /**
-     * Obtiene el historial de uso de un dumpster
+     * Obtiene el historial de uso de un dumpster.
+     * Los días ya descargados se sirven desde memoria y solo se piden los que faltan.
      */
-    public List<model.UsageRecord> getDumpsterUsage(long dumpsterId, LocalDate startDate, LocalDate endDate) 
+    public List<model.UsageRecord> getDumpsterUsage(long dumpsterId, LocalDate startDate, LocalDate endDate)
             throws ControllerException {
-        
+        return await(getDumpsterUsageAsync(dumpsterId, startDate, endDate));
+    }
+
+    public CompletableFuture<List<model.UsageRecord>> getDumpsterUsageAsync(long dumpsterId, LocalDate startDate,
+                                                                            LocalDate endDate) {
         if (startDate.isAfter(endDate)) {
-            throw new ControllerException("La fecha inicial no puede ser posterior a la fecha final");
+            return CompletableFuture.failedFuture(
+                    new ControllerException("La fecha inicial no puede ser posterior a la fecha final"));
         }
 
-        try {
-            String token = SessionManager.getInstance().getAuthToken();
-            return dumpsterService.getDumpsterUsage(dumpsterId, startDate, endDate, token);
-        } catch (Exception e) {
-            throw new ControllerException("Error al obtener el historial: " + e.getMessage(), e);
+        UsageHistoryCache.Lookup lookup = usageCache.lookup(dumpsterId, startDate, endDate);
+        if (lookup.missing().isEmpty()) {
+            return CompletableFuture.completedFuture(lookup.cached());
+        }
+
+        String token = SessionManager.getInstance().getAuthToken();
+        List<CompletableFuture<List<model.UsageRecord>>> fetches = new ArrayList<>();
+        for (UsageHistoryCache.Range range : lookup.missing()) {
+            fetches.add(reads.execute(SingleFlight.key("usage", dumpsterId, range.start(), range.end(), token),
+                    () -> translate(dumpsterService.getDumpsterUsageAsync(dumpsterId, range.start(), range.end(), token),
+                            null, "Error al obtener el historial: ")));
+        }
+
+        CompletableFuture<Void> all = CompletableFuture.allOf(fetches.toArray(new CompletableFuture<?>[0]));
+        CompletableFuture<List<model.UsageRecord>> result = all.thenApply(ignored -> {
+            List<model.UsageRecord> records = new ArrayList<>(lookup.cached());
+            for (int i = 0; i < fetches.size(); i++) {
+                UsageHistoryCache.Range range = lookup.missing().get(i);
+                List<model.UsageRecord> fetched = fetches.get(i).join();
+                usageCache.put(dumpsterId, range.start(), range.end(), fetched, lookup.generation());
+                records.addAll(fetched);
+            }
+            records.sort(Comparator.comparing(model.UsageRecord::getDate,
+                    Comparator.nullsLast(Comparator.naturalOrder())));
+            return records;
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                fetches.forEach(fetch -> fetch.cancel(true));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Exporta a CSV el historial de uso de varios dumpsters entre dos fechas, con varias
+     * peticiones en paralelo y sin acumular el historial completo en memoria.
+     * Un dumpster cuyo historial falla no aborta la exportación; se informa en el resultado.
+     * @param progress se invoca fuera del EDT tras cada dumpster; puede ser null
+     */
+    public CompletableFuture<UsageExportResult> exportUsageAsync(Collection<Long> dumpsterIds, LocalDate startDate,
+                                                                 LocalDate endDate, Path target,
+                                                                 UsageExporter.Progress progress) {
+        if (startDate.isAfter(endDate)) {
+            return CompletableFuture.failedFuture(
+                    new ControllerException("La fecha inicial no puede ser posterior a la fecha final"));
         }
+
+        String token = SessionManager.getInstance().getAuthToken();
+        // Se va directamente al servicio: la exportación no debe desplazar el historial cacheado
+        UsageExporter exporter = new UsageExporter(
+                dumpsterId -> translate(dumpsterService.getDumpsterUsageAsync(dumpsterId, startDate, endDate, token),
+                        null, "Error al obtener el historial: "),
+                USAGE_EXPORT_CONCURRENCY, progress);
+        return exporter.export(new ArrayList<>(dumpsterIds), target);
     }
 
     /**
-     * Busca dumpsters por código postal y fecha
+     * Exporta el historial de los dumpsters cuyo código postal empieza por el prefijo dado
      */
-    public List<Dumpster> searchDumpstersByPostalCodeAndDate(int postalCode, LocalDate date) 
+    public CompletableFuture<UsageExportResult> exportUsageByPostalCodePrefixAsync(String prefix, LocalDate startDate,
+                                                                                   LocalDate endDate, Path target,
+                                                                                   UsageExporter.Progress progress) {
+        CompletableFuture<UsageExportResult> result = new CompletableFuture<>();
+        CompletableFuture<List<Dumpster>> search = searchDumpstersByPostalCodePrefixAsync(prefix);
+        search.whenComplete((dumpsters, error) -> {
+            if (error != null) {
+                result.completeExceptionally(Futures.unwrap(error));
+                return;
+            }
+            CompletableFuture<UsageExportResult> export = exportUsageAsync(
+                    dumpsters.stream().map(Dumpster::getId).toList(), startDate, endDate, target, progress);
+            Futures.propagateCancellation(result, export);
+            export.whenComplete((exported, exportError) -> {
+                if (exportError != null) {
+                    result.completeExceptionally(Futures.unwrap(exportError));
+                } else {
+                    result.complete(exported);
+                }
+            });
+        });
+        return Futures.propagateCancellation(result, search);
+    }
+
+    /**
+     * Busca dumpsters por código postal y fecha en el servidor.
+     * No se responde desde la copia local: /dumpsters/status/postal_code no se limita a los
+     * dumpsters del usuario, así que puede devolver otro conjunto que /dumpsters.
+     * Para buscar solo en la flota propia, searchMyDumpstersByPostalCodeAsync.
+     */
+    public List<Dumpster> searchDumpstersByPostalCodeAndDate(int postalCode, LocalDate date)
             throws ControllerException {
-        try {
-            String token = SessionManager.getInstance().getAuthToken();
-            return dumpsterService.getDumpstersByPostalCodeAndDate(date, postalCode, token);
-        } catch (Exception e) {
-            throw new ControllerException("Error en la búsqueda: " + e.getMessage(), e);
+        return await(searchDumpstersByPostalCodeAndDateAsync(postalCode, date));
+    }
+
+    public CompletableFuture<List<Dumpster>> searchDumpstersByPostalCodeAndDateAsync(int postalCode,
+                                                                                     LocalDate date) {
+        String token = SessionManager.getInstance().getAuthToken();
+        return reads.execute(SingleFlight.key("search", postalCode, date, token),
+                () -> translate(dumpsterService.getDumpstersByPostalCodeAndDateAsync(date, postalCode, token),
+                        null, "Error en la búsqueda: "));
+    }
+
+    /**
+     * Busca en la flota del usuario (el listado de /dumpsters) los dumpsters con el código postal dado,
+     * con su estado actual. Solo descarga el listado si la copia ha caducado.
+     */
+    public CompletableFuture<List<Dumpster>> searchMyDumpstersByPostalCodeAsync(int postalCode) {
+        CompletableFuture<List<Dumpster>> load = loadDumpsters(false);
+        return Futures.propagateCancellation(
+                load.thenApply(dumpsters -> dumpsterRepository.getStore().getPostalCodeIndex().find(postalCode)), load);
+    }
+
+    /**
+     * Busca en la flota local los dumpsters cuyo código postal empieza por el prefijo dado
+     * (p. ej. "48" para toda Bizkaia). Solo descarga el listado si la copia ha caducado.
+     */
+    public CompletableFuture<List<Dumpster>> searchDumpstersByPostalCodePrefixAsync(String prefix) {
+        if (prefix == null || prefix.isEmpty() || prefix.length() > PostalCodeIndex.POSTAL_CODE_DIGITS
+                || !prefix.chars().allMatch(Character::isDigit)) {
+            return CompletableFuture.failedFuture(
+                    new ControllerException("El prefijo debe tener entre 1 y 5 dígitos"));
         }
+        CompletableFuture<List<Dumpster>> load = loadDumpsters(false);
+        return Futures.propagateCancellation(
+                load.thenApply(dumpsters -> dumpsterRepository.getStore().getPostalCodeIndex().prefix(prefix)), load);
     }
 
     /**
      * Obtiene todas las plantas de reciclaje disponibles
      */
     public List<RecyclingPlant> getAllRecyclingPlants() throws ControllerException {
-        try {
-            String token = SessionManager.getInstance().getAuthToken();
-            return plantService.getAllPlants(token);
-        } catch (Exception e) {
-            throw new ControllerException("Error al cargar las plantas: " + e.getMessage(), e);
+        return await(getAllRecyclingPlantsAsync());
+    }
+
+    public CompletableFuture<List<RecyclingPlant>> getAllRecyclingPlantsAsync() {
+        String token = SessionManager.getInstance().getAuthToken();
+        List<RecyclingPlant> cached = plantCache.get(token);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
         }
+
+        long generation = plantCache.getGeneration();
+        CompletableFuture<List<RecyclingPlant>> download = reads.execute(SingleFlight.key("plants", token), () -> {
+            CompletableFuture<List<RecyclingPlant>> call = plantService.getAllPlantsAsync(token);
+            return translate(Futures.propagateCancellation(call.thenApply(plants -> {
+                List<RecyclingPlant> catalogue = Collections.unmodifiableList(plants);
+                if (plantCache.put(token, catalogue, generation)) {
+                    persistedPlants = null;
+                    if (snapshotFile != null) {
+                        snapshotFile.savePlants(catalogue);
+                    }
+                }
+                return catalogue;
+            }), call), null, "Error al cargar las plantas: ");
+        });
+
+        // Si la descarga falla no se sigue sirviendo el catálogo del disco como si fuera válido
+        download.whenComplete((catalogue, error) -> {
+            if (error != null && !Futures.isCancellation(error)) {
+                persistedPlants = null;
+            }
+        });
+
+        // Con el catálogo del último arranque se responde ya y la descarga sigue en segundo plano
+        List<RecyclingPlant> persisted = persistedPlants();
+        return persisted != null ? CompletableFuture.completedFuture(persisted) : download;
+    }
+
+    // Catálogo del disco si aún no ha caducado
+    private List<RecyclingPlant> persistedPlants() {
+        PersistedPlants persisted = persistedPlants;
+        if (persisted == null) {
+            return null;
+        }
+        if (System.nanoTime() - persisted.expiresAt() >= 0) {
+            persistedPlants = null;
+            return null;
+        }
+        return persisted.plants();
     }
 
     /**
      * Obtiene la capacidad disponible de una planta para una fecha
      */
     public Optional<Integer> getPlantCapacity(String plantName, LocalDate date) throws ControllerException {
-        try {
-            String token = SessionManager.getInstance().getAuthToken();
-            Integer capacity = plantService.getPlantCapacity(token, plantName, date.toString());
-            return Optional.ofNullable(capacity);
-        } catch (Exception e) {
-            throw new ControllerException("Error al obtener capacidad: " + e.getMessage(), e);
+        return await(getPlantCapacityAsync(plantName, date));
+    }
+
+    public CompletableFuture<Optional<Integer>> getPlantCapacityAsync(String plantName, LocalDate date) {
+        CapacityKey key = new CapacityKey(plantName, date);
+        Optional<Integer> cached = capacityCache.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        String token = SessionManager.getInstance().getAuthToken();
+        long generation = capacityCache.getGeneration();
+        return reads.execute(SingleFlight.key("capacity", plantName, date, token), () -> {
+            CompletableFuture<Integer> call = plantService.getPlantCapacityAsync(token, plantName, date.toString());
+            return translate(Futures.propagateCancellation(call.thenApply(value -> {
+                Optional<Integer> capacity = Optional.ofNullable(value);
+                capacityCache.put(key, capacity, generation);
+                return capacity;
+            }), call), null, "Error al obtener capacidad: ");
+        });
+    }
+
+    /**
+     * Consulta en paralelo la capacidad de varias plantas para una fecha, con como mucho
+     * maxConcurrency peticiones en vuelo. onResult se invoca (desde un hilo de red) según llega
+     * cada resultado; un error en una planta se notifica como Optional.empty() sin abortar el resto.
+     * Cancelar el futuro devuelto cancela las consultas pendientes.
+     */
+    public CompletableFuture<Map<String, Optional<Integer>>> getPlantCapacitiesAsync(
+            List<String> plantNames, LocalDate date, int maxConcurrency,
+            BiConsumer<String, Optional<Integer>> onResult) {
+
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(maxConcurrency);
+        Map<String, Optional<Integer>> capacities = new ConcurrentHashMap<>();
+        List<CompletableFuture<Optional<Integer>>> requests = new ArrayList<>(plantNames.size());
+        List<CompletableFuture<Optional<Integer>>> lookups = new ArrayList<>(plantNames.size());
+
+        for (String plantName : plantNames) {
+            CompletableFuture<Optional<Integer>> request = limiter.submit(() -> getPlantCapacityAsync(plantName, date));
+            requests.add(request);
+            lookups.add(request
+                    .exceptionally(error -> Optional.empty())
+                    .thenApply(capacity -> {
+                        capacities.put(plantName, capacity);
+                        if (onResult != null) {
+                            onResult.accept(plantName, capacity);
+                        }
+                        return capacity;
+                    }));
         }
+
+        CompletableFuture<Map<String, Optional<Integer>>> result = CompletableFuture
+                .allOf(lookups.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    Map<String, Optional<Integer>> ordered = new LinkedHashMap<>();
+                    for (String plantName : plantNames) {
+                        ordered.put(plantName, capacities.getOrDefault(plantName, Optional.empty()));
+                    }
+                    return ordered;
+                });
+        result.whenComplete((value, error) -> {
+            if (error != null) {
+                requests.forEach(request -> request.cancel(true));
+            }
+        });
+        return result;
     }
 
     /**
      * Asigna un dumpster a una planta de reciclaje
      */
     public boolean assignDumpsterToPlant(long dumpsterId, String plantName) throws ControllerException {
+        return await(assignDumpsterToPlantAsync(dumpsterId, plantName));
+    }
+
+    public CompletableFuture<Boolean> assignDumpsterToPlantAsync(long dumpsterId, String plantName) {
+        if (plantName == null || plantName.trim().isEmpty()) {
+            return CompletableFuture.failedFuture(new ControllerException("Debe seleccionar una planta"));
+        }
+
+        String token = SessionManager.getInstance().getAuthToken();
+        RecyclingPlant plant = knownPlant(token, plantName);
+        Runnable rollback = applyOptimistic(dumpsterId, dumpster -> dumpster.setAssignedPlant(plant));
+
+        CompletableFuture<Boolean> call = plantService.assignDumpstersToPlantAsync(token, plantName, List.of(dumpsterId));
+        CompletableFuture<Boolean> assignment = Futures.propagateCancellation(call.whenComplete((assigned, error) -> {
+            if (Boolean.TRUE.equals(assigned)) {
+                invalidatePlant(plantName);
+            } else {
+                rollback.run();
+            }
+        }), call);
+        return translate(invalidatingOnFailure(assignment, Boolean.TRUE::equals),
+                "Sesión no válida", "Error en la asignación: ", "Error al asignar planta: ");
+    }
+
+    /**
+     * Asigna varios dumpsters a una planta. Los ids se reparten en lotes que se envían
+     * en paralelo; el fallo de un lote no aborta el resto y queda reflejado en el resultado.
+     */
+    public BulkAssignResult assignDumpstersToPlant(List<Long> dumpsterIds, String plantName)
+            throws ControllerException {
+        return await(assignDumpstersToPlantAsync(dumpsterIds, plantName));
+    }
+
+    public CompletableFuture<BulkAssignResult> assignDumpstersToPlantAsync(List<Long> dumpsterIds,
+                                                                           String plantName) {
         if (plantName == null || plantName.trim().isEmpty()) {
-            throw new ControllerException("Debe seleccionar una planta");
+            return CompletableFuture.failedFuture(new ControllerException("Debe seleccionar una planta"));
+        }
+        if (dumpsterIds == null || dumpsterIds.isEmpty()) {
+            return CompletableFuture.failedFuture(new ControllerException("Debe seleccionar al menos un dumpster"));
+        }
+
+        String token = SessionManager.getInstance().getAuthToken();
+        RecyclingPlant plant = knownPlant(token, plantName);
+        List<Long> ids = List.copyOf(new LinkedHashSet<>(dumpsterIds));
+        int batchSize = bulkAssignBatchSize(ids.size());
+
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(BULK_ASSIGN_CONCURRENCY);
+        List<CompletableFuture<Boolean>> requests = new ArrayList<>();
+        List<CompletableFuture<BulkAssignResult.BatchResult>> batches = new ArrayList<>();
+
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            CompletableFuture<Boolean> request = limiter.submit(() -> translate(
+                    plantService.assignDumpstersToPlantAsync(token, plantName, batch),
+                    "Sesión no válida", "Error en la asignación: ", "Error al asignar planta: "));
+            requests.add(request);
+            batches.add(request.handle((assigned, error) -> {
+                if (error != null) {
+                    return BulkAssignResult.BatchResult.failure(batch, Futures.unwrap(error).getMessage());
+                }
+                return assigned
+                        ? BulkAssignResult.BatchResult.success(batch)
+                        : BulkAssignResult.BatchResult.failure(batch, "La asignación fue rechazada");
+            }));
+        }
+
+        CompletableFuture<BulkAssignResult> result = CompletableFuture
+                .allOf(batches.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> new BulkAssignResult(plantName,
+                        batches.stream().map(CompletableFuture::join).toList()));
+        result.whenComplete((value, error) -> {
+            if (error != null) {
+                requests.forEach(request -> request.cancel(true));
+            }
+            if (value != null) {
+                // Los lotes aceptados se aplican a la copia local en una sola notificación
+                dumpsterRepository.getStore().updateAll(value.getAssignedIds(), dumpster -> {
+                    if (dumpster == null) return null;
+                    dumpster.setAssignedPlant(plant);
+                    return dumpster;
+                });
+            }
+            // Solo si algún lote falló no se sabe qué quedó en el servidor
+            if (value == null || !value.isSuccess()) {
+                dumpsterRepository.invalidate();
+            }
+            invalidatePlant(plantName);
+        });
+        return result;
+    }
+
+    /**
+     * Tamaño de lote que reparte los ids entre todas las peticiones en paralelo
+     */
+    static int bulkAssignBatchSize(int total) {
+        int perRequest = (total + BULK_ASSIGN_CONCURRENCY - 1) / BULK_ASSIGN_CONCURRENCY;
+        return Math.max(BULK_ASSIGN_MIN_BATCH, Math.min(BULK_ASSIGN_MAX_BATCH, perRequest));
+    }
+
+    /**
+     * Aplica un cambio a la copia local antes de enviarlo al servidor, de modo que la tabla
+     * lo muestra al instante. Devuelve la acción que lo deshace; solo restaura el valor
+     * anterior si nadie ha cambiado el dumpster entretanto (p. ej. una sincronización).
+     */
+    private Runnable applyOptimistic(long dumpsterId, Consumer<Dumpster> change) {
+        DumpsterStore store = dumpsterRepository.getStore();
+        Dumpster previous = store.get(dumpsterId);
+        if (previous == null) {
+            return () -> { };
+        }
+        Dumpster optimistic = store.get(dumpsterId);
+        change.accept(optimistic);
+        store.put(optimistic);
+        return () -> store.replaceIf(optimistic, previous);
+    }
+
+    // La planta completa si está en el catálogo cacheado; si no, solo con el nombre
+    private RecyclingPlant knownPlant(String token, String plantName) {
+        List<RecyclingPlant> catalogue = plantCache.get(token);
+        if (catalogue == null) {
+            catalogue = persistedPlants();
+        }
+        if (catalogue != null) {
+            for (RecyclingPlant plant : catalogue) {
+                if (plantName.equals(plant.getName())) {
+                    return plant;
+                }
+            }
         }
+        RecyclingPlant plant = new RecyclingPlant();
+        plant.setName(plantName);
+        return plant;
+    }
+
+    /**
+     * Tras asignar dumpsters a una planta cambian su llenado y su capacidad disponible
+     */
+    private void invalidatePlant(String plantName) {
+        capacityCache.invalidateIf(key -> key.plantName().equals(plantName));
+        plantCache.clear();
+        persistedPlants = null;
+    }
+
+    /**
+     * Si una escritura falla (o no se sabe si llegó) la copia local de dumpsters deja de ser
+     * fiable. Si se aplicó, su resultado ya está en el almacén y no hace falta recargar.
+     */
+    private <T> CompletableFuture<T> invalidatingOnFailure(CompletableFuture<T> write, Predicate<T> applied) {
+        return Futures.propagateCancellation(write.whenComplete((value, error) -> {
+            if (error != null || !applied.test(value)) {
+                dumpsterRepository.invalidate();
+            }
+        }), write);
+    }
 
+    /**
+     * Espera el resultado de una operación asíncrona desde código bloqueante
+     */
+    private static <T> T await(CompletableFuture<T> future) throws ControllerException {
         try {
-            String token = SessionManager.getInstance().getAuthToken();
-            return plantService.assignDumpstersToPlant(token, plantName, List.of(dumpsterId));
-        } catch (IllegalStateException e) {
-            throw new ControllerException("Sesión no válida", e);
-        } catch (IllegalArgumentException e) {
-            throw new ControllerException("Error en la asignación: " + e.getMessage(), e);
-        } catch (Exception e) {
-            throw new ControllerException("Error al asignar planta: " + e.getMessage(), e);
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ControllerException("Operación interrumpida", e);
+        } catch (ExecutionException e) {
+            Throwable cause = Futures.unwrap(e);
+            if (cause instanceof ControllerException controllerException) {
+                throw controllerException;
+            }
+            throw new ControllerException(cause.getMessage(), cause);
         }
     }
 
+    /**
+     * Traduce los errores del servicio a ControllerException con los mismos mensajes que la API síncrona.
+     * La cancelación del futuro devuelto se propaga a la petición HTTP.
+     */
+    private static <T> CompletableFuture<T> translate(CompletableFuture<T> call, String sessionMessage,
+                                                      String errorPrefix) {
+        return translate(call, sessionMessage, errorPrefix, errorPrefix);
+    }
+
+    private static <T> CompletableFuture<T> translate(CompletableFuture<T> call, String sessionMessage,
+                                                      String argumentPrefix, String errorPrefix) {
+        CompletableFuture<T> result = call.handle((value, error) -> {
+            if (error == null) {
+                return value;
+            }
+            Throwable cause = Futures.unwrap(error);
+            if (cause instanceof ControllerException || Futures.isCancellation(cause)) {
+                throw new CompletionException(cause);
+            }
+            if (sessionMessage != null && cause instanceof IllegalStateException) {
+                throw new CompletionException(new ControllerException(sessionMessage, cause));
+            }
+            if (cause instanceof IllegalArgumentException) {
+                throw new CompletionException(
+                        new ControllerException(argumentPrefix + cause.getMessage(), cause));
+            }
+            throw new CompletionException(new ControllerException(errorPrefix + cause.getMessage(), cause));
+        });
+        return Futures.propagateCancellation(result, call);
+    }
+
+    private record CapacityKey(String plantName, LocalDate date) {
+    }
+
+    private record PersistedPlants(List<RecyclingPlant> plants, long expiresAt) {
+    }
+
     /**
      * Excepción personalizada para el controlador
      */
@@ -175,4 +873,4 @@ public class DumpsterController {
             super(message, cause);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,204 @@
+package controller;
+
+import model.Dumpster;
+import model.DumpsterDelta;
+import service.ConditionalResult;
+import service.DumpsterServiceClient;
+import utils.Futures;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Copia local del listado de dumpsters compartida por todos los paneles de la sesión.
+ * Dentro del TTL las lecturas se sirven de memoria. Pasado el TTL (o al forzar el refresco)
+ * se piden solo los cambios desde la última versión conocida; si el servidor no soporta
+ * sincronización incremental se revalida el listado completo con If-None-Match /
+ * If-Modified-Since, de modo que una flota sin cambios cuesta un 304.
+ * Los cambios se fusionan en un DumpsterStore indexado por id que notifica altas,
+ * modificaciones y bajas, y si hay SnapshotFile se guardan en disco para el próximo arranque.
+ */
+public class DumpsterRepository {
+
+    public static final Duration DEFAULT_TTL = Duration.ofSeconds(30);
+
+    private final DumpsterServiceClient dumpsterService;
+    private final DumpsterStore store = new DumpsterStore();
+    private final long ttlNanos;
+    private final SnapshotFile snapshotFile;
+
+    private boolean loaded;
+    private String etag;
+    private String lastModified;
+    private String syncVersion;
+    private boolean deltaSupported = true;
+    private long fetchedAtNanos;
+    private boolean stale = true;
+
+    public DumpsterRepository(DumpsterServiceClient dumpsterService) {
+        this(dumpsterService, DEFAULT_TTL);
+    }
+
+    public DumpsterRepository(DumpsterServiceClient dumpsterService, Duration ttl) {
+        this(dumpsterService, ttl, null);
+    }
+
+    /**
+     * @param snapshotFile copia en disco que se actualiza tras cada sincronización; puede ser null
+     */
+    public DumpsterRepository(DumpsterServiceClient dumpsterService, Duration ttl, SnapshotFile snapshotFile) {
+        this.dumpsterService = dumpsterService;
+        this.ttlNanos = ttl.toNanos();
+        this.snapshotFile = snapshotFile;
+    }
+
+    /**
+     * Carga la copia guardada en disco como caducada: se muestra de inmediato y la primera
+     * lectura la revalida, con sus validadores, así que si nada ha cambiado basta un 304
+     */
+    public void restore(SnapshotFile.Snapshot snapshot) {
+        synchronized (this) {
+            // Si ya se ha cargado del servidor, la copia en disco es más antigua
+            if (loaded) return;
+            store.replaceAll(snapshot.getDumpsters());
+            loaded = true;
+            etag = snapshot.getEtag();
+            lastModified = snapshot.getLastModified();
+            syncVersion = snapshot.getSyncVersion();
+            stale = true;
+        }
+    }
+
+    /**
+     * Devuelve el listado, desde memoria si sigue vigente o sincronizándolo con el servidor
+     */
+    public CompletableFuture<List<Dumpster>> getDumpsters(String token, boolean revalidate) {
+        String sinceVersion;
+        synchronized (this) {
+            if (!revalidate && isFresh()) {
+                return CompletableFuture.completedFuture(store.getSnapshot());
+            }
+            sinceVersion = loaded && deltaSupported ? syncVersion : null;
+        }
+
+        if (sinceVersion == null) {
+            return fetchAll(token);
+        }
+
+        CompletableFuture<DumpsterDelta> call = dumpsterService.getDumpsterChangesAsync(token, sinceVersion);
+        return Futures.propagateCancellation(call.thenCompose(delta -> {
+            if (delta == null) {
+                synchronized (this) {
+                    deltaSupported = false;
+                }
+                return fetchAll(token);
+            }
+            return CompletableFuture.completedFuture(applyDelta(delta));
+        }), call);
+    }
+
+    private CompletableFuture<List<Dumpster>> fetchAll(String token) {
+        String knownEtag;
+        String knownLastModified;
+        synchronized (this) {
+            // Sin copia local no tiene sentido enviar validadores: un 304 nos dejaría sin datos
+            knownEtag = loaded ? etag : null;
+            knownLastModified = loaded ? lastModified : null;
+        }
+
+        // Los dumpsters se decodifican directamente en las columnas que adoptará el almacén
+        CompletableFuture<ConditionalResult<FleetColumns>> call = dumpsterService.getAllDumpstersIfModifiedAsync(
+                token, knownEtag, knownLastModified, FleetColumns.collector());
+        return Futures.propagateCancellation(call.thenApply(this::applyFull), call);
+    }
+
+    private List<Dumpster> applyFull(ConditionalResult<FleetColumns> result) {
+        synchronized (this) {
+            boolean changed = false;
+            if (!result.isNotModified() || !loaded) {
+                changed = !store.replaceAll(result.getBody() != null ? result.getBody() : new FleetColumns()).isEmpty()
+                        || !loaded;
+                loaded = true;
+            }
+            changed |= !Objects.equals(etag, result.getEtag())
+                    || !Objects.equals(lastModified, result.getLastModified())
+                    || !Objects.equals(syncVersion, result.getSyncVersion());
+            etag = result.getEtag();
+            lastModified = result.getLastModified();
+            syncVersion = result.getSyncVersion();
+            markFetched();
+            if (changed) {
+                persist();
+            }
+        }
+        return store.getSnapshot();
+    }
+
+    private List<Dumpster> applyDelta(DumpsterDelta delta) {
+        synchronized (this) {
+            boolean changed = !store.applyDelta(delta).isEmpty() || etag != null || lastModified != null;
+            if (delta.getVersion() != null) {
+                changed |= !delta.getVersion().equals(syncVersion);
+                syncVersion = delta.getVersion();
+            }
+            // El ETag del listado completo ya no corresponde a nuestra copia
+            etag = null;
+            lastModified = null;
+            markFetched();
+            if (changed) {
+                persist();
+            }
+        }
+        return store.getSnapshot();
+    }
+
+    // La escritura se hace en el hilo del SnapshotFile; aquí solo se entrega el estado
+    private void persist() {
+        if (snapshotFile != null) {
+            snapshotFile.saveDumpsters(store.getSnapshot(), etag, lastModified, syncVersion);
+        }
+    }
+
+    private void markFetched() {
+        fetchedAtNanos = System.nanoTime();
+        stale = false;
+    }
+
+    private boolean isFresh() {
+        return loaded && !stale && System.nanoTime() - fetchedAtNanos < ttlNanos;
+    }
+
+    /**
+     * Almacén indexado por id donde se fusionan los cambios; permite suscribirse a ellos
+     */
+    public DumpsterStore getStore() {
+        return store;
+    }
+
+    /**
+     * Última copia conocida, o null si todavía no se ha descargado
+     */
+    public synchronized List<Dumpster> getSnapshot() {
+        return loaded ? store.getSnapshot() : null;
+    }
+
+    /**
+     * Marca la copia como caducada; la siguiente lectura sincronizará con el servidor
+     */
+    public synchronized void invalidate() {
+        stale = true;
+    }
+
+    public void clear() {
+        synchronized (this) {
+            loaded = false;
+            etag = null;
+            lastModified = null;
+            syncVersion = null;
+            stale = true;
+        }
+        store.clear();
+    }
+}
@@ -0,0 +1,282 @@
+package controller;
+
+import model.Dumpster;
+import model.DumpsterDelta;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.UnaryOperator;
+
+/**
+ * Almacén local de dumpsters indexado por id. Cada sincronización (completa o incremental)
+ * se fusiona sobre el contenido actual y se notifica a los listeners como un único
+ * conjunto de altas, modificaciones y bajas.
+ * Los datos se guardan por columnas (FleetColumns) y no como objetos Dumpster, de modo
+ * que una flota grande no llena el heap de objetos en caja.
+ * Los listeners se invocan en el hilo que aplica los cambios, normalmente un hilo de red.
+ */
+public class DumpsterStore {
+
+    private FleetColumns columns = new FleetColumns();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private FleetColumns snapshot = new FleetColumns().copy();
+    private boolean snapshotDirty;
+    private PostalCodeIndex postalCodeIndex;
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Sustituye el contenido por un listado completo, notificando solo las diferencias
+     */
+    public Changes replaceAll(Collection<Dumpster> fleet) {
+        return replaceAll(FleetColumns.of(fleet));
+    }
+
+    /**
+     * Sustituye el contenido por una flota ya construida (p. ej. con FleetColumns.collector()
+     * según se decodifica la respuesta), notificando solo las diferencias.
+     * La flota pasa a ser del almacén: el llamante no debe volver a usarla.
+     */
+    public Changes replaceAll(FleetColumns fleet) {
+        Changes changes;
+        synchronized (this) {
+            List<Dumpster> added = new ArrayList<>();
+            List<Dumpster> updated = new ArrayList<>();
+            List<Dumpster> removed = new ArrayList<>();
+
+            for (int row = 0; row < fleet.size(); row++) {
+                int previous = columns.indexOf(fleet.getId(row));
+                if (previous < 0) {
+                    added.add(fleet.getDumpster(row));
+                } else if (!columns.sameContent(previous, fleet, row)) {
+                    updated.add(fleet.getDumpster(row));
+                }
+            }
+            for (int row = 0; row < columns.size(); row++) {
+                if (fleet.indexOf(columns.getId(row)) < 0) {
+                    removed.add(columns.getDumpster(row));
+                }
+            }
+
+            // Se adopta la flota recién construida para que los diccionarios no acumulen valores antiguos
+            columns = fleet;
+            changes = new Changes(added, updated, removed);
+            // Aun sin cambios visibles, la copia anterior puede tener plantas solo con el nombre
+            snapshotDirty = true;
+        }
+        fire(changes);
+        return changes;
+    }
+
+    /**
+     * Aplica un delta incremental del servidor
+     */
+    public Changes applyDelta(DumpsterDelta delta) {
+        Changes changes;
+        synchronized (this) {
+            changes = merge(delta);
+        }
+        fire(changes);
+        return changes;
+    }
+
+    /**
+     * Inserta o sustituye un único dumpster (por ejemplo, el devuelto por una escritura)
+     */
+    public Changes put(Dumpster dumpster) {
+        return applyDelta(new DumpsterDelta(null, List.of(dumpster), List.of()));
+    }
+
+    /**
+     * Modifica un dumpster a partir de su valor actual sin que otra escritura se cuele entre
+     * la lectura y la escritura. Se invoca con el lock del almacén: change no debe tomar otros locks.
+     * @param change recibe una copia del dumpster (null si no está) y devuelve el nuevo valor,
+     *               o null para dejarlo como está
+     */
+    public Changes update(long id, UnaryOperator<Dumpster> change) {
+        return updateAll(List.of(id), change);
+    }
+
+    /**
+     * Como update, para varios dumpsters con un solo paso por el lock y una sola notificación
+     */
+    public Changes updateAll(Collection<Long> ids, UnaryOperator<Dumpster> change) {
+        Changes changes;
+        synchronized (this) {
+            List<Dumpster> changed = new ArrayList<>(ids.size());
+            for (long id : ids) {
+                int row = columns.indexOf(id);
+                Dumpster updated = change.apply(row >= 0 ? columns.getDumpster(row) : null);
+                if (updated != null) {
+                    changed.add(updated);
+                }
+            }
+            if (changed.isEmpty()) {
+                return new Changes(List.of(), List.of(), List.of());
+            }
+            changes = merge(new DumpsterDelta(null, changed, List.of()));
+        }
+        fire(changes);
+        return changes;
+    }
+
+    /**
+     * Sustituye el dumpster solo si su contenido sigue siendo expected; sirve para deshacer
+     * un cambio optimista sin pisar lo que haya llegado después del servidor
+     */
+    public Changes replaceIf(Dumpster expected, Dumpster replacement) {
+        Changes changes;
+        synchronized (this) {
+            int row = columns.indexOf(expected.getId());
+            if (row < 0 || !columns.sameContent(row, expected)) {
+                return new Changes(List.of(), List.of(), List.of());
+            }
+            changes = merge(new DumpsterDelta(null, List.of(replacement), List.of()));
+        }
+        fire(changes);
+        return changes;
+    }
+
+    // Llamar con el lock del almacén; los listeners se notifican después, fuera de él
+    private Changes merge(DumpsterDelta delta) {
+        List<Dumpster> added = new ArrayList<>();
+        List<Dumpster> updated = new ArrayList<>();
+        List<Dumpster> removed = new ArrayList<>();
+        int plantRevision = columns.getPlantRevision();
+
+        for (Dumpster dumpster : delta.getChanged()) {
+            if (dumpster.getId() == null) continue;
+            int previous = columns.indexOf(dumpster.getId());
+            if (previous < 0) {
+                added.add(dumpster);
+            } else if (!columns.sameContent(previous, dumpster)) {
+                updated.add(dumpster);
+            }
+            // Aunque no cambie nada visible se escribe: puede traer la planta completa en lugar del nombre
+            columns.put(dumpster);
+        }
+        Set<Long> removedIds = new HashSet<>();
+        for (Long id : delta.getRemoved()) {
+            int row = id != null ? columns.indexOf(id) : -1;
+            if (row >= 0 && removedIds.add(id)) {
+                removed.add(columns.getDumpster(row));
+            }
+        }
+        columns.removeAll(removedIds);
+
+        Changes changes = new Changes(added, updated, removed);
+        if (!changes.isEmpty() || columns.getPlantRevision() != plantRevision) {
+            snapshotDirty = true;
+        }
+        return changes;
+    }
+
+    public synchronized Dumpster get(long id) {
+        int row = columns.indexOf(id);
+        return row >= 0 ? columns.getDumpster(row) : null;
+    }
+
+    public synchronized int size() {
+        return columns.size();
+    }
+
+    /**
+     * Copia inmutable del contenido actual como lista; cada elemento se materializa al leerlo
+     */
+    public List<Dumpster> getSnapshot() {
+        return getColumns().asList();
+    }
+
+    /**
+     * Copia inmutable por columnas del contenido actual; solo se rehace cuando hay cambios
+     */
+    public synchronized FleetColumns getColumns() {
+        if (snapshotDirty) {
+            snapshot = columns.copy();
+            snapshotDirty = false;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Índice por código postal de la copia inmutable actual; se construye una vez por copia
+     */
+    public synchronized PostalCodeIndex getPostalCodeIndex() {
+        FleetColumns current = getColumns();
+        if (postalCodeIndex == null || postalCodeIndex.getFleet() != current) {
+            postalCodeIndex = PostalCodeIndex.build(current);
+        }
+        return postalCodeIndex;
+    }
+
+    public Changes clear() {
+        Changes changes;
+        synchronized (this) {
+            changes = new Changes(List.of(), List.of(), new ArrayList<>(columns.asList()));
+            columns = new FleetColumns();
+            snapshot = columns.copy();
+            snapshotDirty = false;
+        }
+        fire(changes);
+        return changes;
+    }
+
+    private void fire(Changes changes) {
+        if (changes.isEmpty()) return;
+        for (Listener listener : listeners) {
+            listener.dumpstersChanged(changes);
+        }
+    }
+
+    /**
+     * Recibe los cambios de cada sincronización
+     */
+    public interface Listener {
+        void dumpstersChanged(Changes changes);
+    }
+
+    /**
+     * Conjunto de cambios aplicados en una sincronización
+     */
+    public static class Changes {
+        private final List<Dumpster> added;
+        private final List<Dumpster> updated;
+        private final List<Dumpster> removed;
+
+        public Changes(List<Dumpster> added, List<Dumpster> updated, List<Dumpster> removed) {
+            this.added = added;
+            this.updated = updated;
+            this.removed = removed;
+        }
+
+        public List<Dumpster> getAdded() {
+            return added;
+        }
+
+        public List<Dumpster> getUpdated() {
+            return updated;
+        }
+
+        public List<Dumpster> getRemoved() {
+            return removed;
+        }
+
+        public int size() {
+            return added.size() + updated.size() + removed.size();
+        }
+
+        public boolean isEmpty() {
+            return size() == 0;
+        }
+    }
+}
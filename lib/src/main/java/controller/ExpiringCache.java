@@ -0,0 +1,94 @@
+package controller;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Caché en memoria con tamaño máximo (se descarta la entrada usada hace más tiempo)
+ * y caducidad por entrada. Cada invalidación incrementa una generación; un resultado
+ * pedido antes de una invalidación no se guarda al llegar, así que no puede
+ * reintroducir un valor ya obsoleto.
+ */
+public class ExpiringCache<K, V> {
+
+    private final long ttlNanos;
+    private final Map<K, Entry<V>> entries;
+    private long generation;
+
+    public ExpiringCache(int maxSize, Duration ttl) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize debe ser al menos 1");
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Valor vigente, o null si no está o ha caducado
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.storedAtNanos >= ttlNanos) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Generación actual; se pasa a put al terminar la lectura que se empezó con ella
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Guarda el valor salvo que haya habido una invalidación desde expectedGeneration
+     */
+    public synchronized boolean put(K key, V value, long expectedGeneration) {
+        if (generation != expectedGeneration) {
+            return false;
+        }
+        entries.put(key, new Entry<>(value, System.nanoTime()));
+        return true;
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateIf(Predicate<K> predicate) {
+        generation++;
+        entries.keySet().removeIf(predicate);
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long storedAtNanos;
+
+        Entry(V value, long storedAtNanos) {
+            this.value = value;
+            this.storedAtNanos = storedAtNanos;
+        }
+    }
+}
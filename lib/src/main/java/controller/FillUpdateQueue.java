@@ -0,0 +1,163 @@
+package controller;
+
+import utils.Futures;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Cola write-behind de actualizaciones de llenado. Las lecturas que llegan para un mismo
+ * dumpster antes de enviarse se fusionan (gana la última) y se envían cuando la cola alcanza
+ * maxBatch dumpsters o pasa flushInterval desde la primera lectura pendiente.
+ * Nunca hay dos peticiones en vuelo para el mismo dumpster, así que el servidor recibe
+ * las lecturas en orden, y el total de peticiones en vuelo está limitado.
+ */
+public class FillUpdateQueue {
+
+    public static final int DEFAULT_MAX_BATCH = 50;
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMillis(500);
+    public static final int DEFAULT_MAX_IN_FLIGHT = 4;
+
+    private final BiFunction<Long, Integer, CompletableFuture<Boolean>> sender;
+    private final int maxBatch;
+    private final long flushIntervalMillis;
+    private final ConcurrencyLimiter limiter;
+
+    private final Map<Long, PendingUpdate> pending = new LinkedHashMap<>();
+    private final Map<Long, CompletableFuture<Boolean>> inFlight = new HashMap<>();
+    // Dumpsters con lectura pendiente que un flush no pudo enviar por tener otra en vuelo
+    private final Set<Long> heldBack = new HashSet<>();
+    private boolean flushScheduled;
+
+    public FillUpdateQueue(BiFunction<Long, Integer, CompletableFuture<Boolean>> sender) {
+        this(sender, DEFAULT_MAX_BATCH, DEFAULT_FLUSH_INTERVAL, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    public FillUpdateQueue(BiFunction<Long, Integer, CompletableFuture<Boolean>> sender, int maxBatch,
+                           Duration flushInterval, int maxInFlight) {
+        if (maxBatch < 1) {
+            throw new IllegalArgumentException("maxBatch debe ser al menos 1");
+        }
+        this.sender = sender;
+        this.maxBatch = maxBatch;
+        this.flushIntervalMillis = flushInterval.toMillis();
+        this.limiter = new ConcurrencyLimiter(maxInFlight);
+    }
+
+    /**
+     * Encola una lectura. El futuro se completa con el resultado de la petición que
+     * finalmente la envíe; si una lectura posterior la sustituye, ambos comparten ese resultado.
+     */
+    public CompletableFuture<Boolean> submit(long dumpsterId, int currentFill) {
+        CompletableFuture<Boolean> result;
+        boolean flushNow = false;
+        synchronized (this) {
+            PendingUpdate update = pending.get(dumpsterId);
+            if (update != null) {
+                update.currentFill = currentFill;
+                return update.result;
+            }
+
+            update = new PendingUpdate(dumpsterId, currentFill);
+            pending.put(dumpsterId, update);
+            result = update.result;
+
+            if (pending.size() >= maxBatch) {
+                flushNow = true;
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                CompletableFuture.delayedExecutor(flushIntervalMillis, TimeUnit.MILLISECONDS).execute(this::flush);
+            }
+        }
+        if (flushNow) {
+            flush();
+        }
+        return result;
+    }
+
+    /**
+     * Envía todo lo pendiente. El futuro devuelto se completa cuando han terminado
+     * (con éxito o no) todas las lecturas encoladas hasta este momento.
+     */
+    public CompletableFuture<Void> flush() {
+        List<PendingUpdate> batch = new ArrayList<>();
+        List<CompletableFuture<Boolean>> waitFor = new ArrayList<>();
+        synchronized (this) {
+            flushScheduled = false;
+            Iterator<PendingUpdate> it = pending.values().iterator();
+            while (it.hasNext()) {
+                PendingUpdate update = it.next();
+                waitFor.add(update.result);
+                // Si ya hay una petición en vuelo para este dumpster, se envía cuando termine
+                if (!inFlight.containsKey(update.dumpsterId)) {
+                    it.remove();
+                    batch.add(update);
+                } else {
+                    heldBack.add(update.dumpsterId);
+                }
+            }
+            waitFor.addAll(inFlight.values());
+            for (PendingUpdate update : batch) {
+                inFlight.put(update.dumpsterId, update.result);
+            }
+        }
+
+        for (PendingUpdate update : batch) {
+            dispatch(update);
+        }
+        return CompletableFuture.allOf(waitFor.toArray(new CompletableFuture<?>[0]))
+                .handle((ignored, error) -> null);
+    }
+
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    public synchronized int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private void dispatch(PendingUpdate update) {
+        int currentFill = update.currentFill;
+        limiter.submit(() -> sender.apply(update.dumpsterId, currentFill))
+                .whenComplete((updated, error) -> {
+                    PendingUpdate next;
+                    synchronized (this) {
+                        inFlight.remove(update.dumpsterId);
+                        next = heldBack.remove(update.dumpsterId) ? pending.remove(update.dumpsterId) : null;
+                        if (next != null) {
+                            inFlight.put(next.dumpsterId, next.result);
+                        }
+                    }
+                    if (error != null) {
+                        update.result.completeExceptionally(Futures.unwrap(error));
+                    } else {
+                        update.result.complete(updated);
+                    }
+                    if (next != null) {
+                        dispatch(next);
+                    }
+                });
+    }
+
+    private static class PendingUpdate {
+        private final long dumpsterId;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        private int currentFill;
+
+        PendingUpdate(long dumpsterId, int currentFill) {
+            this.dumpsterId = dumpsterId;
+            this.currentFill = currentFill;
+        }
+    }
+}
@@ -0,0 +1,604 @@
+package controller;
+
+import model.Dumpster;
+import model.FillLevel;
+import model.RecyclingPlant;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.stream.Collector;
+
+/**
+ * Flota de dumpsters almacenada por columnas: ids, códigos postales, capacidades, llenados y
+ * niveles en arrays primitivos, y ubicaciones y plantas como referencias a un diccionario
+ * compartido. Ocupa unos 30 bytes por dumpster frente a los cientos de un Dumpster con sus
+ * campos en caja, y el GC solo ve un puñado de arrays.
+ * Los Dumpster se materializan bajo demanda (getDumpster, asList); modificarlos no cambia la flota.
+ * No es thread-safe: una instancia modificable pertenece a un solo hilo (o a quien tenga su lock).
+ * copy() devuelve una copia inmutable que se puede compartir entre hilos.
+ */
+public class FleetColumns {
+
+    /** Valor de las columnas enteras cuando el dato falta */
+    public static final int NULL_INT = Integer.MIN_VALUE;
+    private static final byte NULL_LEVEL = -1;
+    private static final int NO_REF = -1;
+    private static final FillLevel[] LEVELS = FillLevel.values();
+
+    private long[] ids;
+    private int[] postalCodes;
+    private int[] capacities;
+    private int[] currentFills;
+    private byte[] fillLevels;
+    private int[] locationRefs;
+    private int[] plantRefs;
+    private int size;
+
+    private final Pool<String> locations;
+    private final Pool<RecyclingPlant> plants;
+    private final boolean frozen;
+    private IdIndex index;
+
+    public FleetColumns() {
+        this(16);
+    }
+
+    public FleetColumns(int initialCapacity) {
+        this(Math.max(initialCapacity, 4), new Pool<>((current, candidate) -> false),
+                new Pool<>(FleetColumns::replacesPlant), false);
+    }
+
+    private FleetColumns(int capacity, Pool<String> locations, Pool<RecyclingPlant> plants, boolean frozen) {
+        this.ids = new long[capacity];
+        this.postalCodes = new int[capacity];
+        this.capacities = new int[capacity];
+        this.currentFills = new int[capacity];
+        this.fillLevels = new byte[capacity];
+        this.locationRefs = new int[capacity];
+        this.plantRefs = new int[capacity];
+        this.locations = locations;
+        this.plants = plants;
+        this.frozen = frozen;
+        this.index = new IdIndex(capacity);
+    }
+
+    /**
+     * Flota modificable con los dumpsters dados; los que no tienen id se descartan
+     */
+    public static FleetColumns of(Collection<Dumpster> dumpsters) {
+        if (dumpsters instanceof ColumnView view) {
+            return view.columns.mutableCopy();
+        }
+        FleetColumns columns = new FleetColumns(dumpsters.size());
+        for (Dumpster dumpster : dumpsters) {
+            columns.put(dumpster);
+        }
+        return columns;
+    }
+
+    /**
+     * Construye una flota modificable a partir de un Stream de dumpsters, sin lista intermedia;
+     * los que no tienen id se descartan
+     */
+    public static Collector<Dumpster, ?, FleetColumns> collector() {
+        return Collector.of(FleetColumns::new, FleetColumns::put, (left, right) -> {
+            for (int row = 0; row < right.size; row++) {
+                left.put(right.getDumpster(row));
+            }
+            return left;
+        });
+    }
+
+    // ---- Lectura ----
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Fila del dumpster, o -1 si no está
+     */
+    public int indexOf(long id) {
+        return index.get(id);
+    }
+
+    public long getId(int row) {
+        checkRow(row);
+        return ids[row];
+    }
+
+    public String getLocation(int row) {
+        checkRow(row);
+        return locations.get(locationRefs[row]);
+    }
+
+    public Integer getPostalCode(int row) {
+        checkRow(row);
+        return boxed(postalCodes[row]);
+    }
+
+    /**
+     * Código postal sin caja; NULL_INT si no tiene
+     */
+    public int postalCodeAt(int row) {
+        checkRow(row);
+        return postalCodes[row];
+    }
+
+    public Integer getCapacity(int row) {
+        checkRow(row);
+        return boxed(capacities[row]);
+    }
+
+    public Integer getCurrentFill(int row) {
+        checkRow(row);
+        return boxed(currentFills[row]);
+    }
+
+    /**
+     * Capacidad sin caja; NULL_INT si no tiene
+     */
+    public int capacityAt(int row) {
+        checkRow(row);
+        return capacities[row];
+    }
+
+    /**
+     * Llenado sin caja; NULL_INT si no tiene
+     */
+    public int currentFillAt(int row) {
+        checkRow(row);
+        return currentFills[row];
+    }
+
+    public FillLevel getFillLevel(int row) {
+        checkRow(row);
+        byte level = fillLevels[row];
+        return level == NULL_LEVEL ? FillLevel.UNKNOWN : LEVELS[level];
+    }
+
+    /**
+     * Planta asignada. Es la misma instancia para todos los dumpsters de la planta
+     */
+    public RecyclingPlant getAssignedPlant(int row) {
+        checkRow(row);
+        return plants.get(plantRefs[row]);
+    }
+
+    public String getPlantName(int row) {
+        RecyclingPlant plant = getAssignedPlant(row);
+        return plant != null ? plant.getName() : null;
+    }
+
+    /**
+     * Mismo cálculo que Dumpster.getFillPercentage, sin crear objetos
+     */
+    public double getFillPercentage(int row) {
+        checkRow(row);
+        int capacity = capacities[row];
+        if (capacity == NULL_INT || capacity == 0) return 0;
+        int fill = currentFills[row];
+        return (fill != NULL_INT ? fill : 0) * 100.0 / capacity;
+    }
+
+    /**
+     * Crea un Dumpster con los datos de la fila
+     */
+    public Dumpster getDumpster(int row) {
+        checkRow(row);
+        byte level = fillLevels[row];
+        return new Dumpster(ids[row], locations.get(locationRefs[row]), boxed(postalCodes[row]),
+                boxed(capacities[row]), boxed(currentFills[row]), level == NULL_LEVEL ? null : LEVELS[level].name(),
+                plants.get(plantRefs[row]));
+    }
+
+    /**
+     * Vista de solo lectura como lista de Dumpster; cada get materializa uno nuevo
+     */
+    public List<Dumpster> asList() {
+        return new ColumnView(this);
+    }
+
+    /**
+     * Indica si la fila tiene los mismos datos que el dumpster (la planta se compara por nombre)
+     */
+    public boolean sameContent(int row, Dumpster dumpster) {
+        checkRow(row);
+        return Objects.equals(locations.get(locationRefs[row]), dumpster.getLocation())
+                && postalCodes[row] == unboxed(dumpster.getPostalCode())
+                && capacities[row] == unboxed(dumpster.getCapacity())
+                && currentFills[row] == unboxed(dumpster.getCurrentFill())
+                && fillLevels[row] == levelOf(dumpster)
+                && Objects.equals(getPlantName(row), plantName(dumpster.getAssignedPlant()));
+    }
+
+    /**
+     * Como sameContent, comparando con una fila de otra flota
+     */
+    public boolean sameContent(int row, FleetColumns other, int otherRow) {
+        checkRow(row);
+        other.checkRow(otherRow);
+        return postalCodes[row] == other.postalCodes[otherRow]
+                && capacities[row] == other.capacities[otherRow]
+                && currentFills[row] == other.currentFills[otherRow]
+                && fillLevels[row] == other.fillLevels[otherRow]
+                && Objects.equals(getLocation(row), other.getLocation(otherRow))
+                && Objects.equals(getPlantName(row), other.getPlantName(otherRow));
+    }
+
+    // ---- Escritura ----
+
+    /**
+     * Inserta el dumpster al final o sustituye la fila con su mismo id
+     * @return fila del dumpster, o -1 si no tiene id
+     */
+    public int put(Dumpster dumpster) {
+        checkWritable();
+        if (dumpster.getId() == null) return -1;
+
+        long id = dumpster.getId();
+        int row = index.get(id);
+        if (row < 0) {
+            ensureCapacity(size + 1);
+            row = size++;
+            ids[row] = id;
+            index.put(id, row);
+        }
+        postalCodes[row] = unboxed(dumpster.getPostalCode());
+        capacities[row] = unboxed(dumpster.getCapacity());
+        currentFills[row] = unboxed(dumpster.getCurrentFill());
+        fillLevels[row] = levelOf(dumpster);
+        locationRefs[row] = locations.ref(dumpster.getLocation(), dumpster.getLocation());
+        RecyclingPlant plant = dumpster.getAssignedPlant();
+        plantRefs[row] = plants.ref(plantName(plant), plant);
+        return row;
+    }
+
+    /**
+     * Cambia cada vez que una planta guardada se sustituye por otra más completa con el mismo nombre,
+     * lo que cambia las filas que la usan aunque sameContent (que compara por nombre) no lo vea
+     */
+    public int getPlantRevision() {
+        return plants.revision;
+    }
+
+    public void setAssignedPlant(int row, RecyclingPlant plant) {
+        checkWritable();
+        checkRow(row);
+        plantRefs[row] = plants.ref(plantName(plant), plant);
+    }
+
+    /**
+     * Elimina el dumpster desplazando las filas siguientes para conservar el orden
+     * @return fila que ocupaba, o -1 si no estaba
+     */
+    public int remove(long id) {
+        checkWritable();
+        int row = index.get(id);
+        if (row < 0) return -1;
+
+        int moved = size - row - 1;
+        System.arraycopy(ids, row + 1, ids, row, moved);
+        System.arraycopy(postalCodes, row + 1, postalCodes, row, moved);
+        System.arraycopy(capacities, row + 1, capacities, row, moved);
+        System.arraycopy(currentFills, row + 1, currentFills, row, moved);
+        System.arraycopy(fillLevels, row + 1, fillLevels, row, moved);
+        System.arraycopy(locationRefs, row + 1, locationRefs, row, moved);
+        System.arraycopy(plantRefs, row + 1, plantRefs, row, moved);
+        size--;
+
+        index.remove(id);
+        for (int i = row; i < size; i++) {
+            index.put(ids[i], i);
+        }
+        return row;
+    }
+
+    /**
+     * Elimina varios dumpsters compactando las columnas una sola vez
+     * @return número de filas eliminadas
+     */
+    public int removeAll(Collection<Long> removedIds) {
+        checkWritable();
+        Set<Long> toRemove = removedIds instanceof Set<Long> set ? set : new HashSet<>(removedIds);
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (toRemove.contains(ids[i])) continue;
+            if (kept != i) {
+                ids[kept] = ids[i];
+                postalCodes[kept] = postalCodes[i];
+                capacities[kept] = capacities[i];
+                currentFills[kept] = currentFills[i];
+                fillLevels[kept] = fillLevels[i];
+                locationRefs[kept] = locationRefs[i];
+                plantRefs[kept] = plantRefs[i];
+            }
+            kept++;
+        }
+        int removed = size - kept;
+        if (removed > 0) {
+            size = kept;
+            index = IdIndex.build(ids, size);
+        }
+        return removed;
+    }
+
+    public void clear() {
+        checkWritable();
+        size = 0;
+        index = new IdIndex(16);
+    }
+
+    /**
+     * Copia inmutable del estado actual. Comparte los diccionarios, que solo crecen
+     */
+    public FleetColumns copy() {
+        FleetColumns copy = new FleetColumns(0, locations.frozen(), plants.frozen(), true);
+        copyColumnsTo(copy);
+        copy.index = IdIndex.build(copy.ids, copy.size);
+        return copy;
+    }
+
+    /**
+     * Copia modificable e independiente, con sus propios diccionarios
+     */
+    public FleetColumns mutableCopy() {
+        FleetColumns copy = new FleetColumns(size);
+        for (int row = 0; row < size; row++) {
+            copy.ids[row] = ids[row];
+            copy.postalCodes[row] = postalCodes[row];
+            copy.capacities[row] = capacities[row];
+            copy.currentFills[row] = currentFills[row];
+            copy.fillLevels[row] = fillLevels[row];
+            String location = locations.get(locationRefs[row]);
+            copy.locationRefs[row] = copy.locations.ref(location, location);
+            RecyclingPlant plant = plants.get(plantRefs[row]);
+            copy.plantRefs[row] = copy.plants.ref(plantName(plant), plant);
+            copy.index.put(ids[row], row);
+        }
+        copy.size = size;
+        return copy;
+    }
+
+    private void copyColumnsTo(FleetColumns copy) {
+        copy.ids = Arrays.copyOf(ids, size);
+        copy.postalCodes = Arrays.copyOf(postalCodes, size);
+        copy.capacities = Arrays.copyOf(capacities, size);
+        copy.currentFills = Arrays.copyOf(currentFills, size);
+        copy.fillLevels = Arrays.copyOf(fillLevels, size);
+        copy.locationRefs = Arrays.copyOf(locationRefs, size);
+        copy.plantRefs = Arrays.copyOf(plantRefs, size);
+        copy.size = size;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) return;
+        int capacity = Math.max(required, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        postalCodes = Arrays.copyOf(postalCodes, capacity);
+        capacities = Arrays.copyOf(capacities, capacity);
+        currentFills = Arrays.copyOf(currentFills, capacity);
+        fillLevels = Arrays.copyOf(fillLevels, capacity);
+        locationRefs = Arrays.copyOf(locationRefs, capacity);
+        plantRefs = Arrays.copyOf(plantRefs, capacity);
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row " + row + ", size " + size);
+        }
+    }
+
+    private void checkWritable() {
+        if (frozen) {
+            throw new UnsupportedOperationException("FleetColumns de solo lectura");
+        }
+    }
+
+    private static Integer boxed(int value) {
+        return value != NULL_INT ? value : null;
+    }
+
+    private static int unboxed(Integer value) {
+        return value != null ? value : NULL_INT;
+    }
+
+    private static byte levelOf(Dumpster dumpster) {
+        return dumpster.getFillLevel() != null ? (byte) dumpster.getFillLevelEnum().ordinal() : NULL_LEVEL;
+    }
+
+    private static String plantName(RecyclingPlant plant) {
+        return plant != null ? plant.getName() : null;
+    }
+
+    // Una planta con solo el nombre (copia en disco, asignación optimista) no sustituye a una completa;
+    // una completa sí sustituye a la guardada, que puede ser solo el nombre o tener datos antiguos
+    private static boolean replacesPlant(RecyclingPlant current, RecyclingPlant candidate) {
+        return candidate != current
+                && (candidate.getLocation() != null || candidate.getPostalCode() != 0 || candidate.getMaxCapacity() != 0);
+    }
+
+    /**
+     * Diccionario de solo crecimiento. Las copias congeladas comparten el array de valores:
+     * el original solo escribe posiciones que ellas no leen o lo sustituye al crecer.
+     * Un valor ya guardado se sustituye (para todas las filas que lo usan) si replaces lo indica;
+     * si el array está compartido con una copia congelada se duplica antes de escribir.
+     */
+    private static final class Pool<V> {
+        private final Map<String, Integer> refs;
+        private final BiPredicate<V, V> replaces;
+        private Object[] values;
+        private int count;
+        private boolean shared;
+        private int revision;
+
+        Pool(BiPredicate<V, V> replaces) {
+            this(new HashMap<>(), replaces, new Object[16], 0);
+        }
+
+        private Pool(Map<String, Integer> refs, BiPredicate<V, V> replaces, Object[] values, int count) {
+            this.refs = refs;
+            this.replaces = replaces;
+            this.values = values;
+            this.count = count;
+        }
+
+        int ref(String key, V value) {
+            if (key == null) return NO_REF;
+            Integer ref = refs.get(key);
+            if (ref != null) {
+                if (value != null && replaces.test(get(ref), value)) {
+                    if (shared) {
+                        values = values.clone();
+                        shared = false;
+                    }
+                    values[ref] = value;
+                    revision++;
+                }
+                return ref;
+            }
+
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+                shared = false;
+            }
+            values[count] = value;
+            refs.put(key, count);
+            return count++;
+        }
+
+        @SuppressWarnings("unchecked")
+        V get(int ref) {
+            return ref == NO_REF ? null : (V) values[ref];
+        }
+
+        Pool<V> frozen() {
+            shared = true;
+            return new Pool<>(null, replaces, values, count);
+        }
+    }
+
+    /**
+     * Índice id → fila con direccionamiento abierto sobre arrays primitivos
+     */
+    private static final class IdIndex {
+        private static final int EMPTY = -1;
+
+        private long[] keys;
+        private int[] rows;
+        private int mask;
+        private int entries;
+
+        IdIndex(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(expected, 8) * 2 - 1) << 1;
+            keys = new long[capacity];
+            rows = new int[capacity];
+            Arrays.fill(rows, EMPTY);
+            mask = capacity - 1;
+        }
+
+        static IdIndex build(long[] ids, int size) {
+            IdIndex index = new IdIndex(size);
+            for (int row = 0; row < size; row++) {
+                index.put(ids[row], row);
+            }
+            return index;
+        }
+
+        int get(long key) {
+            for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+                int row = rows[slot];
+                if (row == EMPTY) return -1;
+                if (keys[slot] == key) return row;
+            }
+        }
+
+        void put(long key, int row) {
+            int slot = slot(key);
+            while (rows[slot] != EMPTY) {
+                if (keys[slot] == key) {
+                    rows[slot] = row;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            rows[slot] = row;
+            if (++entries * 2 > keys.length) {
+                grow();
+            }
+        }
+
+        void remove(long key) {
+            int slot = slot(key);
+            while (rows[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (rows[slot] == EMPTY) return;
+
+            // Borrado con desplazamiento hacia atrás para no dejar huecos en las cadenas
+            rows[slot] = EMPTY;
+            entries--;
+            for (int next = (slot + 1) & mask; rows[next] != EMPTY; next = (next + 1) & mask) {
+                int home = slot(keys[next]);
+                boolean movable = slot <= next ? home <= slot || home > next : home <= slot && home > next;
+                if (movable) {
+                    keys[slot] = keys[next];
+                    rows[slot] = rows[next];
+                    rows[next] = EMPTY;
+                    slot = next;
+                }
+            }
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldRows = rows;
+            keys = new long[oldKeys.length * 2];
+            rows = new int[oldRows.length * 2];
+            Arrays.fill(rows, EMPTY);
+            mask = keys.length - 1;
+            entries = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldRows[i] != EMPTY) {
+                    put(oldKeys[i], oldRows[i]);
+                }
+            }
+        }
+
+        private int slot(long key) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        }
+    }
+
+    private static final class ColumnView extends AbstractList<Dumpster> implements RandomAccess {
+        private final FleetColumns columns;
+
+        ColumnView(FleetColumns columns) {
+            this.columns = columns;
+        }
+
+        @Override
+        public Dumpster get(int index) {
+            return columns.getDumpster(index);
+        }
+
+        @Override
+        public int size() {
+            return columns.size();
+        }
+    }
+}
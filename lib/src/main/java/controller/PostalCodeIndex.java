@@ -0,0 +1,108 @@
+package controller;
+
+import model.Dumpster;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Índice ordenado por código postal sobre una copia inmutable de la flota.
+ * Cada entrada empaqueta código y fila en un long, de modo que el índice es un único
+ * array primitivo ordenado y una consulta (código exacto, rango o prefijo) son dos
+ * búsquedas binarias. Los dumpsters sin código postal no se indexan.
+ */
+public class PostalCodeIndex {
+
+    // Los códigos se manejan como enteros de hasta 5 cifras (los ceros iniciales se pierden)
+    public static final int POSTAL_CODE_DIGITS = 5;
+
+    private final FleetColumns fleet;
+    private final long[] entries;
+
+    private PostalCodeIndex(FleetColumns fleet, long[] entries) {
+        this.fleet = fleet;
+        this.entries = entries;
+    }
+
+    /**
+     * @param fleet copia inmutable (FleetColumns.copy()); el índice guarda filas de esta copia
+     */
+    public static PostalCodeIndex build(FleetColumns fleet) {
+        long[] entries = new long[fleet.size()];
+        int count = 0;
+        for (int row = 0; row < fleet.size(); row++) {
+            int postalCode = fleet.postalCodeAt(row);
+            if (postalCode != FleetColumns.NULL_INT && postalCode >= 0) {
+                entries[count++] = ((long) postalCode << 32) | row;
+            }
+        }
+        entries = Arrays.copyOf(entries, count);
+        Arrays.sort(entries);
+        return new PostalCodeIndex(fleet, entries);
+    }
+
+    public List<Dumpster> find(int postalCode) {
+        return range(postalCode, postalCode);
+    }
+
+    /**
+     * Dumpsters con código postal entre from y to, ambos incluidos, ordenados por código
+     */
+    public List<Dumpster> range(int from, int to) {
+        int start = lowerBound(from);
+        int end = lowerBound((long) to + 1);
+        List<Dumpster> result = new ArrayList<>(Math.max(end - start, 0));
+        for (int i = start; i < end; i++) {
+            result.add(fleet.getDumpster((int) entries[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Dumpsters cuyo código empieza por las cifras dadas, p. ej. "48" → 48000-48999
+     */
+    public List<Dumpster> prefix(String digits) {
+        if (digits == null || digits.isEmpty() || digits.length() > POSTAL_CODE_DIGITS
+                || !digits.chars().allMatch(Character::isDigit)) {
+            throw new IllegalArgumentException("Prefijo de código postal inválido: " + digits);
+        }
+        int scale = 1;
+        for (int i = digits.length(); i < POSTAL_CODE_DIGITS; i++) {
+            scale *= 10;
+        }
+        int value = Integer.parseInt(digits);
+        return range(value * scale, (value + 1) * scale - 1);
+    }
+
+    public int count(int from, int to) {
+        return Math.max(lowerBound((long) to + 1) - lowerBound(from), 0);
+    }
+
+    public int size() {
+        return entries.length;
+    }
+
+    /**
+     * Copia de la flota sobre la que se construyó el índice
+     */
+    public FleetColumns getFleet() {
+        return fleet;
+    }
+
+    // Primera entrada con código >= postalCode
+    private int lowerBound(long postalCode) {
+        long key = postalCode << 32;
+        int low = 0;
+        int high = entries.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
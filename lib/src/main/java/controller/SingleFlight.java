@@ -0,0 +1,114 @@
+package controller;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa lecturas idénticas concurrentes: mientras hay una operación en vuelo para una clave,
+ * los nuevos llamantes reciben su resultado en lugar de lanzar otra petición.
+ * Cada llamante obtiene su propio futuro; cancelarlo solo cancela la petición compartida
+ * cuando ya no queda nadie esperándola.
+ */
+public class SingleFlight {
+
+    private final Map<Object, Call<?>> calls = new HashMap<>();
+
+    /**
+     * Clave compuesta por el endpoint y sus parámetros (incluido el token)
+     */
+    public static Object key(Object... parts) {
+        return Arrays.asList(parts);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> execute(Object key, Supplier<CompletableFuture<T>> operation) {
+        Call<T> call;
+        boolean leader = false;
+        synchronized (this) {
+            call = (Call<T>) calls.get(key);
+            if (call == null) {
+                call = new Call<>();
+                calls.put(key, call);
+                leader = true;
+            }
+            call.subscribers++;
+        }
+
+        if (leader) {
+            start(key, call, operation);
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Call<T> shared = call;
+        shared.result.whenComplete((value, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(value);
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                release(key, shared);
+            }
+        });
+        return result;
+    }
+
+    public synchronized int getInFlightCount() {
+        return calls.size();
+    }
+
+    private <T> void start(Object key, Call<T> call, Supplier<CompletableFuture<T>> operation) {
+        CompletableFuture<T> source;
+        try {
+            source = operation.get();
+        } catch (RuntimeException e) {
+            source = CompletableFuture.failedFuture(e);
+        }
+
+        boolean abandoned;
+        synchronized (this) {
+            call.source = source;
+            abandoned = call.subscribers == 0;
+        }
+        if (abandoned) {
+            source.cancel(true);
+        }
+
+        source.whenComplete((value, error) -> {
+            synchronized (this) {
+                calls.remove(key, call);
+            }
+            if (error != null) {
+                call.result.completeExceptionally(error);
+            } else {
+                call.result.complete(value);
+            }
+        });
+    }
+
+    private void release(Object key, Call<?> call) {
+        CompletableFuture<?> source;
+        synchronized (this) {
+            if (--call.subscribers > 0 || call.result.isDone()) {
+                return;
+            }
+            // Nadie espera ya el resultado: la siguiente lectura empezará una petición nueva
+            calls.remove(key, call);
+            source = call.source;
+        }
+        if (source != null) {
+            source.cancel(true);
+        }
+    }
+
+    private static class Call<T> {
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private CompletableFuture<T> source;
+        private int subscribers;
+    }
+}
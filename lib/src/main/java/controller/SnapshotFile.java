@@ -0,0 +1,350 @@
+package controller;
+
+import model.Dumpster;
+import model.RecyclingPlant;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copia en disco de los dumpsters y plantas del usuario, para mostrar el último estado
+ * conocido en cuanto arranca la aplicación mientras se revalida con el servidor.
+ * Formato binario propio (big-endian) que se lee mapeando el fichero en memoria.
+ * Hay dos ranuras: se lee la más reciente y durante la sesión solo se escribe la otra,
+ * porque en Windows un fichero mapeado no se puede sustituir hasta que se libera el mapeo.
+ * Las escrituras se hacen en un hilo aparte y se agrupan: solo se escribe el último estado.
+ */
+public class SnapshotFile {
+
+    public static final String DATA_DIR_PROPERTY = "ecoembes.data.dir";
+
+    private static final int MAGIC = 0x45434F53; // "ECOS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 16; // magic, versión y fecha de guardado
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final int NULL_STRING = -1;
+    // Tamaño mínimo en disco de cada elemento: id, 3 enteros y 3 longitudes de cadena; 3 enteros y 2 longitudes
+    private static final int MIN_DUMPSTER_BYTES = 8 + 3 * 4 + 3 * 4;
+    private static final int MIN_PLANT_BYTES = 3 * 4 + 2 * 4;
+
+    private final Path[] slots;
+    private final ExecutorService writer;
+    private Path writeSlot;
+
+    private List<Dumpster> dumpsters;
+    private String etag;
+    private String lastModified;
+    private String syncVersion;
+    private List<RecyclingPlant> plants = List.of();
+    private boolean writeScheduled;
+
+    public SnapshotFile(Path directory, String baseName) {
+        this.slots = new Path[] {
+            directory.resolve(baseName + ".a.bin"),
+            directory.resolve(baseName + ".b.bin")
+        };
+        this.writeSlot = slots[0];
+        this.writer = new ThreadPoolExecutor(0, 1, 5, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Fichero del usuario dentro del directorio de datos (propiedad ecoembes.data.dir
+     * o ~/.ecoembes). El nombre se deriva del email para no exponerlo en el disco.
+     */
+    public static SnapshotFile forUser(String email) {
+        String dataDir = System.getProperty(DATA_DIR_PROPERTY);
+        Path directory = dataDir != null
+                ? Paths.get(dataDir)
+                : Paths.get(System.getProperty("user.home"), ".ecoembes");
+        return new SnapshotFile(directory, "snapshot-" + hash(email.trim().toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * Lee la copia más reciente, o null si no hay ninguna válida.
+     * Si la más reciente está dañada se usa la otra.
+     */
+    public synchronized Snapshot load() {
+        Path[] byAge = readSavedAt(slots[1]) > readSavedAt(slots[0])
+                ? new Path[] {slots[1], slots[0]}
+                : new Path[] {slots[0], slots[1]};
+        for (Path slot : byAge) {
+            if (readSavedAt(slot) == Long.MIN_VALUE) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(slot, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                Snapshot snapshot = decode(buffer);
+                // La siguiente escritura va al otro hueco, para no estropear el único válido
+                writeSlot = slot == slots[0] ? slots[1] : slots[0];
+                dumpsters = snapshot.dumpsters;
+                etag = snapshot.etag;
+                lastModified = snapshot.lastModified;
+                syncVersion = snapshot.syncVersion;
+                plants = snapshot.plants;
+                return snapshot;
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Warning: ignoring unreadable snapshot " + slot + ": " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    public synchronized void saveDumpsters(List<Dumpster> dumpsters, String etag, String lastModified,
+                                           String syncVersion) {
+        this.dumpsters = dumpsters;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.syncVersion = syncVersion;
+        scheduleWrite();
+    }
+
+    public synchronized void savePlants(List<RecyclingPlant> plants) {
+        this.plants = plants;
+        scheduleWrite();
+    }
+
+    private void scheduleWrite() {
+        if (!writeScheduled) {
+            writeScheduled = true;
+            writer.execute(this::write);
+        }
+    }
+
+    private void write() {
+        List<Dumpster> dumpstersToWrite;
+        List<RecyclingPlant> plantsToWrite;
+        String etagToWrite;
+        String lastModifiedToWrite;
+        String syncVersionToWrite;
+        Path target;
+        synchronized (this) {
+            writeScheduled = false;
+            if (dumpsters == null) {
+                return;
+            }
+            dumpstersToWrite = dumpsters;
+            plantsToWrite = plants;
+            etagToWrite = etag;
+            lastModifiedToWrite = lastModified;
+            syncVersionToWrite = syncVersion;
+            target = writeSlot;
+        }
+
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(System.currentTimeMillis());
+                writeString(out, etagToWrite);
+                writeString(out, lastModifiedToWrite);
+                writeString(out, syncVersionToWrite);
+
+                out.writeInt(dumpstersToWrite.size());
+                for (Dumpster dumpster : dumpstersToWrite) {
+                    out.writeLong(dumpster.getId());
+                    writeString(out, dumpster.getLocation());
+                    writeInt(out, dumpster.getPostalCode());
+                    writeInt(out, dumpster.getCapacity());
+                    writeInt(out, dumpster.getCurrentFill());
+                    writeString(out, dumpster.getFillLevel());
+                    writeString(out, dumpster.getAssignedPlant() != null ? dumpster.getAssignedPlant().getName() : null);
+                }
+
+                out.writeInt(plantsToWrite.size());
+                for (RecyclingPlant plant : plantsToWrite) {
+                    writeString(out, plant.getName());
+                    writeString(out, plant.getLocation());
+                    out.writeInt(plant.getPostalCode());
+                    out.writeInt(plant.getMaxCapacity());
+                    out.writeInt(plant.getCurrentFill());
+                }
+            } catch (IOException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            System.err.println("Warning: could not save snapshot " + target + ": " + e.getMessage());
+        }
+    }
+
+    private static long readSavedAt(Path slot) {
+        if (!Files.isRegularFile(slot)) {
+            return Long.MIN_VALUE;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(slot))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                return Long.MIN_VALUE;
+            }
+            return in.readLong();
+        } catch (IOException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private static Snapshot decode(ByteBuffer in) {
+        try {
+            in.position(HEADER_SIZE);
+            String etag = readString(in);
+            String lastModified = readString(in);
+            String syncVersion = readString(in);
+
+            int dumpsterCount = readCount(in, MIN_DUMPSTER_BYTES);
+            List<Dumpster> dumpsters = new ArrayList<>(dumpsterCount);
+            for (int i = 0; i < dumpsterCount; i++) {
+                Dumpster dumpster = new Dumpster();
+                dumpster.setId(in.getLong());
+                dumpster.setLocation(readString(in));
+                dumpster.setPostalCode(readInt(in));
+                dumpster.setCapacity(readInt(in));
+                dumpster.setCurrentFill(readInt(in));
+                dumpster.setFillLevel(readString(in));
+                String plantName = readString(in);
+                if (plantName != null) {
+                    RecyclingPlant plant = new RecyclingPlant();
+                    plant.setName(plantName);
+                    dumpster.setAssignedPlant(plant);
+                }
+                dumpsters.add(dumpster);
+            }
+
+            int plantCount = readCount(in, MIN_PLANT_BYTES);
+            List<RecyclingPlant> plants = new ArrayList<>(plantCount);
+            for (int i = 0; i < plantCount; i++) {
+                RecyclingPlant plant = new RecyclingPlant();
+                plant.setName(readString(in));
+                plant.setLocation(readString(in));
+                plant.setPostalCode(in.getInt());
+                plant.setMaxCapacity(in.getInt());
+                plant.setCurrentFill(in.getInt());
+                plants.add(plant);
+            }
+            return new Snapshot(dumpsters, plants, etag, lastModified, syncVersion);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalStateException("truncated snapshot", e);
+        }
+    }
+
+    // Se comprueba contra lo que queda del fichero antes de reservar nada con un valor dañado
+    private static int readCount(ByteBuffer in, int minBytesPerItem) {
+        int count = in.getInt();
+        if (count < 0 || count > in.remaining() / minBytesPerItem) {
+            throw new IllegalStateException("invalid item count " + count);
+        }
+        return count;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_STRING);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length == NULL_STRING) {
+            return null;
+        }
+        if (length < 0 || length > in.remaining()) {
+            throw new IllegalStateException("invalid string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeInt(DataOutputStream out, Integer value) throws IOException {
+        out.writeInt(value != null ? value : NULL_INT);
+    }
+
+    private static Integer readInt(ByteBuffer in) {
+        int value = in.getInt();
+        return value != NULL_INT ? value : null;
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Contenido leído del disco
+     */
+    public static class Snapshot {
+        private final List<Dumpster> dumpsters;
+        private final List<RecyclingPlant> plants;
+        private final String etag;
+        private final String lastModified;
+        private final String syncVersion;
+
+        Snapshot(List<Dumpster> dumpsters, List<RecyclingPlant> plants, String etag, String lastModified,
+                 String syncVersion) {
+            this.dumpsters = dumpsters;
+            this.plants = plants;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.syncVersion = syncVersion;
+        }
+
+        public List<Dumpster> getDumpsters() {
+            return dumpsters;
+        }
+
+        public List<RecyclingPlant> getPlants() {
+            return plants;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        public String getSyncVersion() {
+            return syncVersion;
+        }
+    }
+}
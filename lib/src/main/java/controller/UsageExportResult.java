@@ -0,0 +1,51 @@
+package controller;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resultado de una exportación de historial de uso. Un error en un dumpster no aborta
+ * la exportación: sus filas no se escriben y se conserva el motivo.
+ */
+public class UsageExportResult {
+
+    private final Path file;
+    private final int dumpsterCount;
+    private final long recordCount;
+    private final Map<Long, String> failures;
+
+    public UsageExportResult(Path file, int dumpsterCount, long recordCount, Map<Long, String> failures) {
+        this.file = file;
+        this.dumpsterCount = dumpsterCount;
+        this.recordCount = recordCount;
+        this.failures = Collections.unmodifiableMap(new LinkedHashMap<>(failures));
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Número de dumpsters solicitados
+     */
+    public int getDumpsterCount() {
+        return dumpsterCount;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Id de cada dumpster cuyo historial no se pudo obtener, con el mensaje de error
+     */
+    public Map<Long, String> getFailures() {
+        return failures;
+    }
+
+    public boolean isSuccess() {
+        return failures.isEmpty();
+    }
+}
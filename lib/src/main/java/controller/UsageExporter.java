@@ -0,0 +1,237 @@
+package controller;
+
+import model.UsageRecord;
+import utils.Futures;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongFunction;
+
+/**
+ * Exporta a CSV el historial de uso de muchos dumpsters.
+ * Hay como mucho maxConcurrency peticiones en vuelo, y cada una solo deja paso a la
+ * siguiente cuando sus filas ya están escritas: en memoria nunca hay más de
+ * maxConcurrency historiales, por grande que sea la exportación.
+ * Todo el estado vive en un único hilo escritor; las filas se escriben en un fichero
+ * temporal que sustituye al destino solo si la exportación termina.
+ * Las filas de cada dumpster van juntas, en el orden en que llegan las respuestas.
+ */
+public class UsageExporter {
+
+    static final String CSV_HEADER = "dumpster_id,date,estimated_num_cont,fill_level";
+
+    private final LongFunction<CompletableFuture<List<UsageRecord>>> fetcher;
+    private final int maxConcurrency;
+    private final Progress progress;
+
+    /**
+     * @param fetcher historial de un dumpster; el rango de fechas lo fija quien crea el exportador
+     * @param progress se invoca desde el hilo escritor tras cada dumpster; puede ser null
+     */
+    public UsageExporter(LongFunction<CompletableFuture<List<UsageRecord>>> fetcher, int maxConcurrency,
+                         Progress progress) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency debe ser al menos 1");
+        }
+        this.fetcher = fetcher;
+        this.maxConcurrency = maxConcurrency;
+        this.progress = progress;
+    }
+
+    /**
+     * Lanza la exportación. Cancelar el futuro devuelto cancela las peticiones en vuelo
+     * y deja el destino como estaba.
+     */
+    public CompletableFuture<UsageExportResult> export(List<Long> dumpsterIds, Path target) {
+        return new Run(new ArrayList<>(new LinkedHashSet<>(dumpsterIds)), target).start();
+    }
+
+    /**
+     * Avance de una exportación
+     */
+    public interface Progress {
+        void exported(int completedDumpsters, int totalDumpsters, long records);
+    }
+
+    private class Run {
+        private final List<Long> ids;
+        private final Path target;
+        private final Iterator<Long> remaining;
+        private final CompletableFuture<UsageExportResult> result = new CompletableFuture<>();
+        private final ExecutorService writerThread = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "usage-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        private final Set<CompletableFuture<List<UsageRecord>>> inFlight = new HashSet<>();
+        private final Map<Long, String> failures = new LinkedHashMap<>();
+        private Path temp;
+        private BufferedWriter out;
+        private int completed;
+        private long records;
+
+        Run(List<Long> ids, Path target) {
+            this.ids = ids;
+            this.target = target.toAbsolutePath();
+            this.remaining = ids.iterator();
+        }
+
+        CompletableFuture<UsageExportResult> start() {
+            writerThread.execute(() -> {
+                if (result.isDone()) {
+                    return;
+                }
+                try {
+                    Path directory = target.getParent();
+                    if (directory != null) {
+                        Files.createDirectories(directory);
+                    }
+                    temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+                    out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8);
+                    out.write(CSV_HEADER);
+                    out.newLine();
+                } catch (IOException e) {
+                    fail(e);
+                    return;
+                }
+                if (ids.isEmpty()) {
+                    finish();
+                    return;
+                }
+                for (int i = 0; i < maxConcurrency && remaining.hasNext(); i++) {
+                    fetchNext();
+                }
+            });
+            result.whenComplete((value, error) -> {
+                if (result.isCancelled()) {
+                    try {
+                        writerThread.execute(this::abort);
+                    } catch (RejectedExecutionException e) {
+                        // El hilo escritor ya terminó y limpió lo suyo
+                    }
+                }
+            });
+            return result;
+        }
+
+        // Solo desde el hilo escritor
+        private void fetchNext() {
+            if (result.isDone() || !remaining.hasNext()) {
+                return;
+            }
+            long id = remaining.next();
+            CompletableFuture<List<UsageRecord>> fetch;
+            try {
+                fetch = fetcher.apply(id);
+            } catch (RuntimeException e) {
+                fetch = CompletableFuture.failedFuture(e);
+            }
+            inFlight.add(fetch);
+            CompletableFuture<List<UsageRecord>> call = fetch;
+            call.whenCompleteAsync((history, error) -> {
+                inFlight.remove(call);
+                if (result.isDone()) {
+                    return;
+                }
+                if (error != null) {
+                    failures.put(id, Futures.unwrap(error).getMessage());
+                } else {
+                    try {
+                        write(id, history);
+                    } catch (IOException e) {
+                        fail(e);
+                        return;
+                    }
+                }
+                completed++;
+                if (progress != null) {
+                    progress.exported(completed, ids.size(), records);
+                }
+                if (completed == ids.size()) {
+                    finish();
+                } else {
+                    fetchNext();
+                }
+            }, writerThread);
+        }
+
+        private void write(long id, List<UsageRecord> history) throws IOException {
+            for (UsageRecord record : history) {
+                out.write(Long.toString(id));
+                out.write(',');
+                out.write(record.getDate() != null ? record.getDate().toString() : "");
+                out.write(',');
+                out.write(Integer.toString(record.getEstimatedNumCont()));
+                out.write(',');
+                out.write(csvField(record.getFillLevel()));
+                out.newLine();
+                records++;
+            }
+        }
+
+        private void finish() {
+            // Cancelada mientras se escribía: el destino no se toca
+            if (result.isDone()) {
+                abort();
+                return;
+            }
+            try {
+                out.close();
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                fail(e);
+                return;
+            }
+            result.complete(new UsageExportResult(target, ids.size(), records, failures));
+            writerThread.shutdown();
+        }
+
+        private void fail(IOException e) {
+            result.completeExceptionally(new DumpsterController.ControllerException(
+                    "Error al exportar el historial: " + e.getMessage(), e));
+            abort();
+        }
+
+        private void abort() {
+            inFlight.forEach(fetch -> fetch.cancel(true));
+            inFlight.clear();
+            try {
+                if (out != null) {
+                    out.close();
+                }
+                if (temp != null) {
+                    Files.deleteIfExists(temp);
+                }
+            } catch (IOException e) {
+                System.err.println("Warning: could not delete " + temp + ": " + e.getMessage());
+            }
+            writerThread.shutdown();
+        }
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
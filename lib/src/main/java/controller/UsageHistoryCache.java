@@ -0,0 +1,154 @@
+package controller;
+
+import model.UsageRecord;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Historial de uso ya descargado, por dumpster. Para cada uno guarda los registros por día
+ * y los intervalos de fechas que se han pedido al servidor (fusionados cuando se solapan
+ * o son contiguos), de modo que al desplazar la ventana solo se piden los días que faltan.
+ * El día de hoy (y posteriores) nunca se da por completo, porque el servidor aún puede
+ * añadir registros.
+ * Como en ExpiringCache, un resultado pedido antes de una invalidación no se guarda.
+ */
+public class UsageHistoryCache {
+
+    private final Map<Long, History> histories;
+    private long generation;
+
+    /**
+     * @param maxDumpsters número de dumpsters cuyo historial se conserva (se descarta el usado hace más tiempo)
+     */
+    public UsageHistoryCache(int maxDumpsters) {
+        if (maxDumpsters < 1) {
+            throw new IllegalArgumentException("maxDumpsters debe ser al menos 1");
+        }
+        this.histories = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, History> eldest) {
+                return size() > maxDumpsters;
+            }
+        };
+    }
+
+    /**
+     * Lo que hay en memoria para [start, end]: los registros de los días ya descargados
+     * y los subintervalos que faltan por pedir, junto con la generación para put
+     */
+    public synchronized Lookup lookup(long dumpsterId, LocalDate start, LocalDate end) {
+        History history = histories.get(dumpsterId);
+        List<Range> missing = new ArrayList<>();
+        List<UsageRecord> cached = new ArrayList<>();
+        LocalDate cursor = start;
+        if (history != null) {
+            // El único intervalo que puede cubrir start es el que empieza en o antes de él
+            Map.Entry<LocalDate, LocalDate> floor = history.covered.floorEntry(cursor);
+            if (floor != null && !floor.getValue().isBefore(cursor)) {
+                LocalDate coveredEnd = floor.getValue().isBefore(end) ? floor.getValue() : end;
+                history.addRecords(cursor, coveredEnd, cached);
+                cursor = floor.getValue().plusDays(1);
+            }
+            while (!cursor.isAfter(end)) {
+                Map.Entry<LocalDate, LocalDate> interval = history.covered.higherEntry(cursor);
+                if (interval == null || interval.getKey().isAfter(end)) {
+                    break;
+                }
+                missing.add(new Range(cursor, interval.getKey().minusDays(1)));
+                LocalDate coveredEnd = interval.getValue().isBefore(end) ? interval.getValue() : end;
+                history.addRecords(interval.getKey(), coveredEnd, cached);
+                cursor = interval.getValue().plusDays(1);
+            }
+        }
+        if (!cursor.isAfter(end)) {
+            missing.add(new Range(cursor, end));
+        }
+        return new Lookup(cached, missing, generation);
+    }
+
+    /**
+     * Guarda los registros descargados para [start, end], sustituyendo los de esos días,
+     * salvo que haya habido una invalidación desde expectedGeneration
+     */
+    public synchronized boolean put(long dumpsterId, LocalDate start, LocalDate end, List<UsageRecord> records,
+                                    long expectedGeneration) {
+        if (generation != expectedGeneration) {
+            return false;
+        }
+        History history = histories.computeIfAbsent(dumpsterId, id -> new History());
+        history.byDay.subMap(start, true, end, true).clear();
+        for (UsageRecord record : records) {
+            LocalDate date = record.getDate();
+            if (date != null && !date.isBefore(start) && !date.isAfter(end)) {
+                history.byDay.computeIfAbsent(date, d -> new ArrayList<>(1)).add(record);
+            }
+        }
+
+        LocalDate lastComplete = LocalDate.now().minusDays(1);
+        if (end.isAfter(lastComplete)) {
+            end = lastComplete;
+        }
+        if (!start.isAfter(end)) {
+            history.cover(start, end);
+        }
+        return true;
+    }
+
+    public synchronized void invalidate(long dumpsterId) {
+        generation++;
+        histories.remove(dumpsterId);
+    }
+
+    public synchronized void clear() {
+        generation++;
+        histories.clear();
+    }
+
+    /**
+     * Intervalo de fechas, ambos extremos incluidos
+     */
+    public record Range(LocalDate start, LocalDate end) {
+    }
+
+    /**
+     * Resultado de lookup; si missing está vacío, cached es la ventana completa
+     */
+    public record Lookup(List<UsageRecord> cached, List<Range> missing, long generation) {
+    }
+
+    private static class History {
+        // Inicio -> fin de cada intervalo descargado; nunca se solapan ni son contiguos
+        private final NavigableMap<LocalDate, LocalDate> covered = new TreeMap<>();
+        private final NavigableMap<LocalDate, List<UsageRecord>> byDay = new TreeMap<>();
+
+        void cover(LocalDate start, LocalDate end) {
+            Map.Entry<LocalDate, LocalDate> floor = covered.floorEntry(start);
+            if (floor != null && !floor.getValue().plusDays(1).isBefore(start)) {
+                start = floor.getKey();
+                if (floor.getValue().isAfter(end)) {
+                    end = floor.getValue();
+                }
+            }
+            NavigableMap<LocalDate, LocalDate> absorbed = covered.subMap(start, true, end.plusDays(1), true);
+            for (LocalDate intervalEnd : absorbed.values()) {
+                if (intervalEnd.isAfter(end)) {
+                    end = intervalEnd;
+                }
+            }
+            absorbed.clear();
+            covered.put(start, end);
+        }
+
+        void addRecords(LocalDate start, LocalDate end, List<UsageRecord> target) {
+            for (List<UsageRecord> day : byDay.subMap(start, true, end, true).values()) {
+                target.addAll(day);
+            }
+        }
+    }
+}
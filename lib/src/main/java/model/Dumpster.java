@@ -24,6 +24,11 @@ public class Dumpster {
     @SerializedName("assignedPlant")
     private RecyclingPlant assignedPlant;
 
+    // Valeurs dérivées, calculées par les setters (donc à la désérialisation).
+    // Si les champs sont remplis par réflexion, elles sont calculées au premier accès.
+    private transient FillLevel level;
+    private transient double fillPercentage = Double.NaN;
+
     // Constructeurs
     public Dumpster() {}
 
@@ -36,6 +41,8 @@ public class Dumpster {
         this.currentFill = currentFill;
         this.fillLevel = fillLevel;
         this.assignedPlant = assignedPlant;
+        this.level = FillLevel.fromString(fillLevel);
+        this.fillPercentage = computeFillPercentage();
     }
 
     // Getters et Setters
@@ -49,40 +56,56 @@ public class Dumpster {
     public void setPostalCode(Integer postalCode) { this.postalCode = postalCode; }
 
     public Integer getCapacity() { return capacity; }
-    public void setCapacity(Integer capacity) { this.capacity = capacity; }
+    public void setCapacity(Integer capacity) {
+        this.capacity = capacity;
+        this.fillPercentage = computeFillPercentage();
+    }
 
     public Integer getCurrentFill() { return currentFill; }
-    public void setCurrentFill(Integer currentFill) { this.currentFill = currentFill; }
+    public void setCurrentFill(Integer currentFill) {
+        this.currentFill = currentFill;
+        this.fillPercentage = computeFillPercentage();
+    }
 
     public String getFillLevel() { return fillLevel; }
-    public void setFillLevel(String fillLevel) { this.fillLevel = fillLevel; }
+    public void setFillLevel(String fillLevel) {
+        this.fillLevel = fillLevel;
+        this.level = FillLevel.fromString(fillLevel);
+    }
+
+    public FillLevel getFillLevelEnum() {
+        FillLevel cached = level;
+        if (cached == null) {
+            cached = FillLevel.fromString(fillLevel);
+            level = cached;
+        }
+        return cached;
+    }
 
     public RecyclingPlant getAssignedPlant() { return assignedPlant; }
     public void setAssignedPlant(RecyclingPlant assignedPlant) { this.assignedPlant = assignedPlant; }
 
     public double getFillPercentage() {
+        double cached = fillPercentage;
+        if (Double.isNaN(cached)) {
+            cached = computeFillPercentage();
+            fillPercentage = cached;
+        }
+        return cached;
+    }
+
+    private double computeFillPercentage() {
         if (capacity == null || capacity == 0) return 0;
         return (currentFill != null ? currentFill : 0) * 100.0 / capacity;
     }
 
     public Color getFillLevelColor() {
-        if (fillLevel == null) return Color.GRAY;
-        return switch (fillLevel.toUpperCase()) {
-            case "GREEN" -> new Color(76, 175, 80);
-            case "ORANGE" -> new Color(255, 152, 0);
-            case "RED" -> new Color(244, 67, 54);
-            default -> Color.GRAY;
-        };
+        return getFillLevelEnum().getColor();
     }
 
     public String getFillLevelDisplay() {
         if (fillLevel == null) return "Inconnu";
-        return switch (fillLevel.toUpperCase()) {
-            case "GREEN" -> "🟢 Faible";
-            case "ORANGE" -> "🟠 Moyen";
-            case "RED" -> "🔴 Plein";
-            default -> "⚪ Inconnu";
-        };
+        return getFillLevelEnum().getDisplay();
     }
 
     @Override
@@ -0,0 +1,32 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cambios en la flota desde una versión dada: dumpsters creados o modificados
+ * e ids eliminados, junto con la versión a usar en la siguiente consulta.
+ */
+public class DumpsterDelta {
+
+    private String version;
+    private List<Dumpster> changed = new ArrayList<>();
+    private List<Long> removed = new ArrayList<>();
+
+    public DumpsterDelta() {}
+
+    public DumpsterDelta(String version, List<Dumpster> changed, List<Long> removed) {
+        this.version = version;
+        this.changed = changed;
+        this.removed = removed;
+    }
+
+    public String getVersion() { return version; }
+    public void setVersion(String version) { this.version = version; }
+
+    public List<Dumpster> getChanged() { return changed != null ? changed : List.of(); }
+    public void setChanged(List<Dumpster> changed) { this.changed = changed; }
+
+    public List<Long> getRemoved() { return removed != null ? removed : List.of(); }
+    public void setRemoved(List<Long> removed) { this.removed = removed; }
+}
@@ -0,0 +1,39 @@
+package model;
+
+import java.awt.Color;
+
+public enum FillLevel {
+
+    GREEN("Low", "🟢 Faible", new Color(76, 175, 80)),
+    ORANGE("Medium", "🟠 Moyen", new Color(255, 152, 0)),
+    RED("Full", "🔴 Plein", new Color(244, 67, 54)),
+    UNKNOWN("Unknown", "⚪ Inconnu", Color.GRAY);
+
+    private static final FillLevel[] VALUES = values();
+
+    private final String label;
+    private final String display;
+    private final Color color;
+
+    FillLevel(String label, String display, Color color) {
+        this.label = label;
+        this.display = display;
+        this.color = color;
+    }
+
+    public String getLabel() { return label; }
+
+    public String getDisplay() { return display; }
+
+    public Color getColor() { return color; }
+
+    public static FillLevel fromString(String value) {
+        if (value == null) return UNKNOWN;
+        for (FillLevel level : VALUES) {
+            if (level.name().equalsIgnoreCase(value)) {
+                return level;
+            }
+        }
+        return UNKNOWN;
+    }
+}
@@ -11,6 +11,8 @@ public class UsageRecord{
     private int estimatedNumCont;
     private String fillLevel;
 
+    public UsageRecord() {}
+
     public UsageRecord(Long dumpsterId, LocalDate date, int estimatedNumCont, String fillLevel) {
         this.dumpsterId = dumpsterId;
         this.date = date;
@@ -0,0 +1,52 @@
+package service;
+
+/**
+ * Resultado de una petición GET condicional (If-None-Match / If-Modified-Since).
+ * Si el servidor responde 304 no hay cuerpo y el cliente debe reutilizar su copia.
+ */
+public class ConditionalResult<T> {
+    private final boolean notModified;
+    private final T body;
+    private final String etag;
+    private final String lastModified;
+    private final String syncVersion;
+
+    private ConditionalResult(boolean notModified, T body, String etag, String lastModified, String syncVersion) {
+        this.notModified = notModified;
+        this.body = body;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.syncVersion = syncVersion;
+    }
+
+    public static <T> ConditionalResult<T> modified(T body, String etag, String lastModified, String syncVersion) {
+        return new ConditionalResult<>(false, body, etag, lastModified, syncVersion);
+    }
+
+    public static <T> ConditionalResult<T> notModified(String etag, String lastModified, String syncVersion) {
+        return new ConditionalResult<>(true, null, etag, lastModified, syncVersion);
+    }
+
+    public boolean isNotModified() {
+        return notModified;
+    }
+
+    public T getBody() {
+        return body;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Versión de sincronización a partir de la cual pedir cambios incrementales, si se conoce
+     */
+    public String getSyncVersion() {
+        return syncVersion;
+    }
+}
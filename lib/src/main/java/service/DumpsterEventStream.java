@@ -0,0 +1,285 @@
+package service;
+
+import model.Dumpster;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suscripción a los cambios de dumpsters que publica el servidor como Server-Sent Events
+ * en GET /dumpsters/events. Cada evento trae un dumpster (completo o solo con los campos
+ * que cambian) o, con "event: removed", el id de un dumpster eliminado.
+ * La lectura se hace en un hilo virtual propio. Si la conexión se cae se reabre con
+ * espera exponencial, enviando Last-Event-ID para que el servidor reanude donde se quedó.
+ * Un 401 o un servidor sin el endpoint (404, 405, 501) cierran la suscripción.
+ * Si no llega nada (ni eventos ni comentarios de heartbeat) durante idleTimeout se da la
+ * conexión por perdida y se reabre, para no quedarse CONNECTED con un socket medio abierto.
+ */
+public class DumpsterEventStream implements AutoCloseable {
+
+    public static final String EVENTS_PATH = "/dumpsters/events";
+    public static final Duration DEFAULT_RETRY = Duration.ofSeconds(1);
+    public static final Duration MAX_RETRY = Duration.ofSeconds(30);
+    // El servidor debe enviar un comentario de heartbeat con más frecuencia que esto
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofSeconds(45);
+
+    private final String baseUrl;
+    private final HttpTransport transport;
+    private final JsonCodec codec;
+    private final String token;
+    private final Listener listener;
+    private final long idleTimeoutMillis;
+
+    private volatile boolean closed;
+    private volatile long lastActivity;
+    private volatile boolean idleExpired;
+    private volatile InputStream body;
+    private volatile String lastEventId;
+    private long retryMillis = DEFAULT_RETRY.toMillis();
+    private Thread reader;
+
+    public DumpsterEventStream(String baseUrl, HttpTransport transport, String token, Listener listener) {
+        this(baseUrl, transport, JsonCodec.getDefault(), token, listener);
+    }
+
+    public DumpsterEventStream(String baseUrl, HttpTransport transport, JsonCodec codec, String token,
+                               Listener listener) {
+        this(baseUrl, transport, codec, token, listener, DEFAULT_IDLE_TIMEOUT);
+    }
+
+    public DumpsterEventStream(String baseUrl, HttpTransport transport, JsonCodec codec, String token,
+                               Listener listener, Duration idleTimeout) {
+        this.baseUrl = baseUrl;
+        this.transport = transport;
+        this.codec = codec;
+        this.token = token;
+        this.listener = listener;
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+    }
+
+    /**
+     * @param lastEventId id desde el que reanudar (p. ej. el de una sesión anterior); puede ser null
+     */
+    public synchronized void start(String lastEventId) {
+        if (reader != null) {
+            throw new IllegalStateException("La suscripción ya está iniciada");
+        }
+        this.lastEventId = lastEventId;
+        reader = Thread.ofVirtual().name("dumpster-events").start(this::run);
+    }
+
+    public String getLastEventId() {
+        return lastEventId;
+    }
+
+    @Override
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            thread = reader;
+        }
+        closeBody();
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void run() {
+        long delay = retryMillis;
+        while (!closed) {
+            listener.onStateChanged(State.CONNECTING);
+            boolean connected = false;
+            idleExpired = false;
+            try {
+                HttpResponse<InputStream> response = transport.getHttpClient()
+                        .send(newRequest(), HttpResponse.BodyHandlers.ofInputStream());
+                int status = response.statusCode();
+                if (status == 200) {
+                    connected = true;
+                    listener.onStateChanged(State.CONNECTED);
+                    read(response.body());
+                } else {
+                    response.body().close();
+                    if (status == 401 || status == 404 || status == 405 || status == 501) {
+                        break;
+                    }
+                }
+            } catch (InterruptedException e) {
+                break;
+            } catch (IOException | RuntimeException e) {
+                if (closed) break;
+                if (idleExpired) {
+                    System.err.println("Warning: no dumpster events for " + idleTimeoutMillis + " ms, reconnecting");
+                } else {
+                    System.err.println("Warning: dumpster event stream interrupted: " + e.getMessage());
+                }
+            } finally {
+                closeBody();
+            }
+
+            if (closed) break;
+            if (connected) {
+                // Tras una conexión válida se vuelve a la espera inicial (o la indicada con retry:)
+                delay = retryMillis;
+            }
+            listener.onStateChanged(State.DISCONNECTED);
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                break;
+            }
+            delay = Math.min(delay * 2, MAX_RETRY.toMillis());
+        }
+        closed = true;
+        listener.onStateChanged(State.CLOSED);
+    }
+
+    private HttpRequest newRequest() {
+        // Sin timeout de petición: la respuesta no termina mientras la suscripción esté abierta
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + EVENTS_PATH))
+                .header("Token", token)
+                .header("Accept", "text/event-stream")
+                .header("Cache-Control", "no-cache")
+                .GET();
+        if (lastEventId != null) {
+            builder.header("Last-Event-ID", lastEventId);
+        }
+        return builder.build();
+    }
+
+    private void read(InputStream stream) throws IOException {
+        body = stream;
+        if (closed) return;
+        lastActivity = System.nanoTime();
+        Thread watchdog = startIdleWatchdog(stream);
+        try {
+            readEvents(stream);
+        } finally {
+            watchdog.interrupt();
+        }
+    }
+
+    // Formato text/event-stream: campos "nombre: valor" y una línea vacía al final de cada evento
+    private void readEvents(InputStream stream) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+        String event = null;
+        String id = null;
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = in.readLine()) != null) {
+            lastActivity = System.nanoTime();
+            if (line.isEmpty()) {
+                if (id != null) {
+                    lastEventId = id;
+                }
+                if (data.length() > 0) {
+                    dispatch(event, data.toString());
+                }
+                event = null;
+                id = null;
+                data.setLength(0);
+                continue;
+            }
+            if (line.startsWith(":")) continue;
+
+            int colon = line.indexOf(':');
+            String field = colon < 0 ? line : line.substring(0, colon);
+            String value = colon < 0 ? "" : line.substring(colon + 1);
+            if (value.startsWith(" ")) {
+                value = value.substring(1);
+            }
+            switch (field) {
+                case "event" -> event = value;
+                case "id" -> id = value;
+                case "data" -> {
+                    if (data.length() > 0) data.append('\n');
+                    data.append(value);
+                }
+                case "retry" -> {
+                    try {
+                        retryMillis = Math.max(Long.parseLong(value.trim()), 100);
+                    } catch (NumberFormatException ignored) {
+                        // Valor inválido: el estándar indica ignorarlo
+                    }
+                }
+                default -> { }
+            }
+        }
+    }
+
+    // Cerrar el cuerpo desbloquea readLine() con una IOException y run() vuelve a conectar
+    private Thread startIdleWatchdog(InputStream stream) {
+        return Thread.ofVirtual().name("dumpster-events-idle").start(() -> {
+            try {
+                long idle;
+                while ((idle = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastActivity)) < idleTimeoutMillis) {
+                    Thread.sleep(idleTimeoutMillis - idle);
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+            idleExpired = true;
+            try {
+                stream.close();
+            } catch (IOException ignored) {
+                // Ya se está cerrando la conexión
+            }
+        });
+    }
+
+    private void dispatch(String event, String data) {
+        try {
+            if (event == null || event.equals("dumpster")) {
+                Dumpster dumpster = codec.fromJson(data, Dumpster.class);
+                if (dumpster != null && dumpster.getId() != null) {
+                    listener.onDumpster(dumpster);
+                }
+            } else if (event.equals("removed")) {
+                listener.onRemoved(Long.parseLong(data.trim()));
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Warning: ignoring malformed dumpster event: " + e.getMessage());
+        }
+    }
+
+    private void closeBody() {
+        InputStream stream = body;
+        body = null;
+        if (stream != null) {
+            try {
+                stream.close();
+            } catch (IOException ignored) {
+                // Ya se está cerrando la conexión
+            }
+        }
+    }
+
+    /**
+     * Estado de la conexión
+     */
+    public enum State {
+        CONNECTING, CONNECTED, DISCONNECTED, CLOSED
+    }
+
+    /**
+     * Recibe los eventos en el hilo de lectura
+     */
+    public interface Listener {
+        void onDumpster(Dumpster dumpster);
+
+        void onRemoved(long dumpsterId);
+
+        default void onStateChanged(State state) {
+        }
+    }
+}
@@ -1,73 +1,207 @@
 package service;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import model.Dumpster;
+import model.DumpsterDelta;
 import model.UsageRecord;
 
 import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
+import java.io.InputStream;
+import java.net.URLEncoder;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class DumpsterServiceClient {
 
     private final String baseUrl;
-    private final HttpClient httpClient;
-    private final Gson gson;
+    private final HttpTransport transport;
+    private final JsonCodec codec;
 
-    public DumpsterServiceClient(String baseUrl) {
+    public DumpsterServiceClient(String baseUrl, HttpTransport transport) {
+        this(baseUrl, transport, JsonCodec.getDefault());
+    }
+
+    public DumpsterServiceClient(String baseUrl, HttpTransport transport, JsonCodec codec) {
         this.baseUrl = baseUrl;
-        this.httpClient = HttpClient.newHttpClient();
-        this.gson = new GsonBuilder()
-                .setDateFormat("yyyy-MM-dd'T'HH:mm:ss")
-                .create();
+        this.transport = transport;
+        this.codec = codec;
     }
 
     public List<Dumpster> getAllDumpsters(String token) throws IOException, InterruptedException {
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(baseUrl + "/dumpsters"))
+        try (Stream<Dumpster> dumpsters = streamAllDumpsters(token)) {
+            return dumpsters.collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    /**
+     * Entrega los dumpsters a collector según se decodifican, así que el llamante decide
+     * dónde acaban (p. ej. directamente en las columnas de la flota) sin una lista intermedia
+     */
+    public <T> CompletableFuture<T> getAllDumpstersAsync(String token, Collector<? super Dumpster, ?, T> collector) {
+        return transport.sendStreamingAsync(allDumpstersRequest(token), response -> {
+            try (Stream<Dumpster> dumpsters = handleAllDumpsters(response)) {
+                return dumpsters.collect(collector);
+            }
+        });
+    }
+
+    /**
+     * Decodifica los dumpsters según llegan por la red, sin cargar el cuerpo completo en memoria.
+     * El Stream devuelto mantiene la conexión abierta hasta que se consume o se cierra,
+     * por lo que debe usarse con try-with-resources.
+     */
+    public Stream<Dumpster> streamAllDumpsters(String token) throws IOException, InterruptedException {
+        return transport.send(allDumpstersRequest(token), HttpResponse.BodyHandlers.ofInputStream(),
+                this::handleAllDumpsters);
+    }
+
+    /**
+     * GET /dumpsters condicional: con los validadores de la última respuesta, un listado
+     * sin cambios se resuelve con un 304 sin cuerpo. Los dumpsters se entregan a collector
+     * según se decodifican, como en getAllDumpstersAsync.
+     */
+    public <T> CompletableFuture<ConditionalResult<T>> getAllDumpstersIfModifiedAsync(
+            String token, String etag, String lastModified, Collector<? super Dumpster, ?, T> collector) {
+
+        HttpRequest.Builder request = transport.newRequest(baseUrl + "/dumpsters")
+                .header("Token", token)
+                .header("Content-Type", "application/json")
+                .GET();
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            request.header("If-Modified-Since", lastModified);
+        }
+
+        return transport.sendStreamingAsync(request.build(), response -> {
+            String newEtag = response.headers().firstValue("ETag").orElse(etag);
+            String newLastModified = response.headers().firstValue("Last-Modified").orElse(lastModified);
+
+            if (response.statusCode() == 304) {
+                response.body().close();
+                return ConditionalResult.notModified(newEtag, newLastModified, syncVersion(response));
+            }
+
+            try (Stream<Dumpster> dumpsters = handleAllDumpsters(response)) {
+                return ConditionalResult.modified(dumpsters.collect(collector),
+                        response.headers().firstValue("ETag").orElse(null),
+                        response.headers().firstValue("Last-Modified").orElse(null),
+                        syncVersion(response));
+            }
+        });
+    }
+
+    /**
+     * Cambios en la flota desde la versión indicada (GET /dumpsters/changes?since=...).
+     * Completa con null si el servidor no soporta sincronización incremental: cualquier respuesta
+     * distinta de 200 o 204 (salvo 401), ya que un servidor sin esta ruta puede contestar 400 al
+     * interpretar "changes" como id de /dumpsters/{id}, o un 200 sin un delta legible con versión.
+     */
+    public CompletableFuture<DumpsterDelta> getDumpsterChangesAsync(String token, String sinceVersion) {
+        HttpRequest request = transport.newRequest(baseUrl + "/dumpsters/changes?since="
+                        + URLEncoder.encode(sinceVersion, StandardCharsets.UTF_8))
+                .header("Token", token)
+                .header("Content-Type", "application/json")
+                .GET()
+                .build();
+
+        return transport.sendAsync(request, HttpResponse.BodyHandlers.ofString(), response -> {
+            if (response.statusCode() == 401) {
+                throw new IllegalStateException("Not authorized - Token invalid");
+            }
+
+            if (response.statusCode() == 204) {
+                return new DumpsterDelta(syncVersion(response), List.of(), List.of());
+            }
+
+            if (response.statusCode() != 200) {
+                return null;
+            }
+
+            // Sin cuerpo o sin versión no hay cursor con el que seguir: se trata como no soportado
+            DumpsterDelta delta;
+            try {
+                delta = codec.fromJson(response.body(), DumpsterDelta.class);
+            } catch (RuntimeException e) {
+                return null;
+            }
+            if (delta == null) {
+                return null;
+            }
+            if (delta.getVersion() == null) {
+                delta.setVersion(syncVersion(response));
+            }
+            return delta.getVersion() != null ? delta : null;
+        });
+    }
+
+    /**
+     * Versión de sincronización de la respuesta (cabecera X-Sync-Version), o null si el servidor
+     * no la envía. Sin ella no se usa la sincronización incremental: la cabecera Date no sirve
+     * como cursor porque tiene resolución de un segundo y se fija después de la consulta.
+     */
+    private static String syncVersion(HttpResponse<?> response) {
+        return response.headers().firstValue("X-Sync-Version").orElse(null);
+    }
+
+    private HttpRequest allDumpstersRequest(String token) {
+        return transport.newRequest(baseUrl + "/dumpsters")
                 .header("Token", token)
                 .header("Content-Type", "application/json")
                 .GET()
                 .build();
+    }
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    private Stream<Dumpster> handleAllDumpsters(HttpResponse<InputStream> response) throws IOException {
+        if (response.statusCode() != 200) {
+            response.body().close();
+        }
 
         if (response.statusCode() == 401) {
             throw new IllegalStateException("Not authorized - Token invalid");
         }
 
         if (response.statusCode() == 204) {
-            return List.of();
+            return Stream.empty();
         }
 
         if (response.statusCode() != 200) {
             throw new IOException("Error retrieving dumpsters:" + response.statusCode());
         }
 
-        Dumpster[] dumpsters = gson.fromJson(response.body(), Dumpster[].class);
-        return Arrays.asList(dumpsters);
+        return codec.streamArray(response.body(), Dumpster.class);
     }
 
     public boolean updateDumpsterInfo(long dumpsterId, int currentFill, String token)
             throws IOException, InterruptedException {
+        return transport.send(updateDumpsterInfoRequest(dumpsterId, currentFill, token),
+                HttpResponse.BodyHandlers.ofString(), this::handleUpdateDumpsterInfo);
+    }
 
-        String jsonBody = gson.toJson(currentFill);
+    public CompletableFuture<Boolean> updateDumpsterInfoAsync(long dumpsterId, int currentFill, String token) {
+        return transport.sendAsync(updateDumpsterInfoRequest(dumpsterId, currentFill, token),
+                HttpResponse.BodyHandlers.ofString(), this::handleUpdateDumpsterInfo);
+    }
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(baseUrl + "/dumpsters/" + dumpsterId + "/dump_info"))
+    private HttpRequest updateDumpsterInfoRequest(long dumpsterId, int currentFill, String token) {
+        String jsonBody = codec.toJson(currentFill);
+
+        return transport.newRequest(baseUrl + "/dumpsters/" + dumpsterId + "/dump_info")
                 .header("Token", token)
                 .header("Content-Type", "application/json")
                 .PUT(HttpRequest.BodyPublishers.ofString(jsonBody))
                 .build();
+    }
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
+    private boolean handleUpdateDumpsterInfo(HttpResponse<String> response) {
         if (response.statusCode() == 401) {
             throw new IllegalStateException("Not authorized - Invalid token");
         }
@@ -76,18 +210,26 @@ public class DumpsterServiceClient {
     }
 
     public Dumpster createDumpster(Dumpster dumpster, String token) throws IOException, InterruptedException {
+        return transport.send(createDumpsterRequest(dumpster, token), HttpResponse.BodyHandlers.ofString(),
+                this::handleCreateDumpster);
+    }
+
+    public CompletableFuture<Dumpster> createDumpsterAsync(Dumpster dumpster, String token) {
+        return transport.sendAsync(createDumpsterRequest(dumpster, token), HttpResponse.BodyHandlers.ofString(),
+                this::handleCreateDumpster);
+    }
 
-        String jsonBody = gson.toJson(dumpster);
+    private HttpRequest createDumpsterRequest(Dumpster dumpster, String token) {
+        String jsonBody = codec.toJson(dumpster);
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(baseUrl + "/dumpsters"))
+        return transport.newRequest(baseUrl + "/dumpsters")
                 .header("Token", token)
                 .header("Content-Type", "application/json")
                 .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
                 .build();
+    }
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
+    private Dumpster handleCreateDumpster(HttpResponse<String> response) throws IOException {
         if (response.statusCode() == 401) {
             throw new IllegalStateException("Not authorized - Invalid token");
         }
@@ -96,24 +238,33 @@ public class DumpsterServiceClient {
             throw new IOException("Error creating dumpster:" + response.statusCode());
         }
 
-        return gson.fromJson(response.body(), Dumpster.class);
+        return codec.fromJson(response.body(), Dumpster.class);
     }
 
     public List<UsageRecord> getDumpsterUsage(long dumpsterId, LocalDate startDate, LocalDate endDate, String token)
             throws IOException, InterruptedException {
+        return transport.send(dumpsterUsageRequest(dumpsterId, startDate, endDate, token),
+                HttpResponse.BodyHandlers.ofString(), this::handleDumpsterUsage);
+    }
 
+    public CompletableFuture<List<UsageRecord>> getDumpsterUsageAsync(long dumpsterId, LocalDate startDate,
+                                                                      LocalDate endDate, String token) {
+        return transport.sendAsync(dumpsterUsageRequest(dumpsterId, startDate, endDate, token),
+                HttpResponse.BodyHandlers.ofString(), this::handleDumpsterUsage);
+    }
+
+    private HttpRequest dumpsterUsageRequest(long dumpsterId, LocalDate startDate, LocalDate endDate, String token) {
         String url = String.format("%s/dumpsters/%d/usage?start_date=%s&end_date=%s",
                 baseUrl, dumpsterId, startDate, endDate);
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
+        return transport.newRequest(url)
                 .header("Token", token)
                 .header("Content-Type", "application/json")
                 .GET()
                 .build();
+    }
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
+    private List<UsageRecord> handleDumpsterUsage(HttpResponse<String> response) throws IOException {
         if (response.statusCode() == 401) {
             throw new IllegalStateException("Error creating dumpster:");
         }
@@ -126,25 +277,33 @@ public class DumpsterServiceClient {
             throw new IOException("Error retrieving dumpster usage:" + response.statusCode());
         }
 
-        UsageRecord[] records = gson.fromJson(response.body(), UsageRecord[].class);
-        return Arrays.asList(records);
+        return codec.listFromJson(response.body(), UsageRecord.class);
     }
 
     public List<Dumpster> getDumpstersByPostalCodeAndDate(LocalDate date, int postalCode, String token)
             throws IOException, InterruptedException {
+        return transport.send(dumpstersByPostalCodeRequest(date, postalCode, token),
+                HttpResponse.BodyHandlers.ofString(), this::handleDumpstersByPostalCode);
+    }
+
+    public CompletableFuture<List<Dumpster>> getDumpstersByPostalCodeAndDateAsync(LocalDate date, int postalCode,
+                                                                                  String token) {
+        return transport.sendAsync(dumpstersByPostalCodeRequest(date, postalCode, token),
+                HttpResponse.BodyHandlers.ofString(), this::handleDumpstersByPostalCode);
+    }
 
+    private HttpRequest dumpstersByPostalCodeRequest(LocalDate date, int postalCode, String token) {
         String url = String.format("%s/dumpsters/status/postal_code?date=%s&postal_code=%d",
                 baseUrl, date, postalCode);
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
+        return transport.newRequest(url)
                 .header("Token", token)
                 .header("Content-Type", "application/json")
                 .GET()
                 .build();
+    }
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
+    private List<Dumpster> handleDumpstersByPostalCode(HttpResponse<String> response) throws IOException {
         if (response.statusCode() == 401) {
             throw new IllegalStateException("Unauthorized - Invalid token");
         }
@@ -157,7 +316,6 @@ public class DumpsterServiceClient {
             throw new IOException("Error retrieving dumpsters by postal code: " + response.statusCode());
         }
 
-        Dumpster[] dumpsters = gson.fromJson(response.body(), Dumpster[].class);
-        return Arrays.asList(dumpsters);
+        return codec.listFromJson(response.body(), Dumpster.class);
     }
 }
@@ -0,0 +1,54 @@
+package service;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Codec basado en Gson, con los TypeAdapters de ModelTypeAdapters registrados
+ */
+public class GsonCodec implements JsonCodec {
+
+    private final Gson gson;
+
+    public GsonCodec() {
+        this(ModelTypeAdapters.register(new GsonBuilder())
+                .setDateFormat("yyyy-MM-dd'T'HH:mm:ss")
+                .create());
+    }
+
+    public GsonCodec(Gson gson) {
+        this.gson = gson;
+    }
+
+    @Override
+    public String name() {
+        return "gson";
+    }
+
+    @Override
+    public String toJson(Object value) {
+        return gson.toJson(value);
+    }
+
+    @Override
+    public <T> T fromJson(String json, Class<T> type) {
+        return gson.fromJson(json, type);
+    }
+
+    @Override
+    public <T> List<T> listFromJson(String json, Class<T> elementType) {
+        List<T> values = gson.fromJson(json, TypeToken.getParameterized(List.class, elementType).getType());
+        return values != null ? values : List.of();
+    }
+
+    @Override
+    public <T> Stream<T> streamArray(InputStream body, Class<T> elementType) throws IOException {
+        return new JsonArrayIterator<T>(gson, body, elementType).stream();
+    }
+}
@@ -0,0 +1,141 @@
+package service;
+
+import utils.Futures;
+import utils.ServiceExecutor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Transporte HTTP compartido por todos los clientes de servicio.
+ * Mantiene un único HttpClient (pool de conexiones, hilo selector y estado TLS)
+ * durante toda la sesión en lugar de crear uno por panel.
+ * Los hilos del HttpClient y la decodificación bloqueante de cuerpos en streaming usan el
+ * ejecutor que se le pasa (por defecto los hilos virtuales de ServiceExecutor), nunca el
+ * common pool de ForkJoin.
+ */
+public class HttpTransport implements AutoCloseable {
+
+    public static final HttpClient.Version DEFAULT_VERSION = HttpClient.Version.HTTP_1_1;
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    // El pool de keep-alive del JDK solo se configura mediante propiedades del sistema,
+    // que se leen al crear el primer HttpClient. Respetamos valores ya definidos por el usuario.
+    private static final String KEEPALIVE_TIMEOUT_PROPERTY = "jdk.httpclient.keepalive.timeout";
+    private static final String POOL_SIZE_PROPERTY = "jdk.httpclient.connectionPoolSize";
+
+    static {
+        if (System.getProperty(KEEPALIVE_TIMEOUT_PROPERTY) == null) {
+            System.setProperty(KEEPALIVE_TIMEOUT_PROPERTY, "120");
+        }
+        if (System.getProperty(POOL_SIZE_PROPERTY) == null) {
+            System.setProperty(POOL_SIZE_PROPERTY, "16");
+        }
+    }
+
+    private final HttpClient httpClient;
+    private final Executor executor;
+    private final Duration requestTimeout;
+
+    public HttpTransport() {
+        this(DEFAULT_VERSION, DEFAULT_CONNECT_TIMEOUT, DEFAULT_REQUEST_TIMEOUT, ServiceExecutor.executor());
+    }
+
+    /**
+     * @param executor hilos del HttpClient y de la decodificación de cuerpos; es de quien lo pasa,
+     *                 así que close() no lo cierra
+     */
+    public HttpTransport(HttpClient.Version version, Duration connectTimeout,
+                         Duration requestTimeout, Executor executor) {
+        this.executor = executor;
+        this.requestTimeout = requestTimeout;
+        this.httpClient = HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+    }
+
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * Crea un builder de petición con el timeout por defecto del transporte
+     */
+    public HttpRequest.Builder newRequest(String url) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(requestTimeout);
+    }
+
+    /**
+     * Envía la petición de forma bloqueante y traduce la respuesta
+     */
+    public <B, T> T send(HttpRequest request, HttpResponse.BodyHandler<B> bodyHandler,
+                         ResponseHandler<B, T> responseHandler) throws IOException, InterruptedException {
+        return responseHandler.handle(httpClient.send(request, bodyHandler));
+    }
+
+    /**
+     * Envía la petición sin bloquear ningún hilo mientras está en vuelo.
+     * Cancelar el futuro devuelto (o aplicarle orTimeout) aborta también el intercambio HTTP.
+     */
+    public <B, T> CompletableFuture<T> sendAsync(HttpRequest request, HttpResponse.BodyHandler<B> bodyHandler,
+                                                 ResponseHandler<B, T> responseHandler) {
+        CompletableFuture<HttpResponse<B>> exchange = httpClient.sendAsync(request, bodyHandler);
+        CompletableFuture<T> result = exchange.thenApply(response -> {
+            try {
+                return responseHandler.handle(response);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+        return Futures.propagateCancellation(result, exchange);
+    }
+
+    /**
+     * Variante de sendAsync para cuerpos que se decodifican en streaming desde un InputStream.
+     * La lectura del cuerpo bloquea, así que se hace en un hilo propio del ejecutor (virtual por
+     * defecto) y no en el hilo que completa el intercambio.
+     */
+    public <T> CompletableFuture<T> sendStreamingAsync(HttpRequest request,
+                                                       ResponseHandler<InputStream, T> responseHandler) {
+        CompletableFuture<HttpResponse<InputStream>> exchange =
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+        CompletableFuture<T> result = exchange.thenApplyAsync(response -> {
+            try {
+                return responseHandler.handle(response);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+        return Futures.propagateCancellation(result, exchange);
+    }
+
+    /**
+     * Traduce una respuesta HTTP al resultado del servicio
+     */
+    @FunctionalInterface
+    public interface ResponseHandler<B, T> {
+        T handle(HttpResponse<B> response) throws IOException;
+    }
+
+    /**
+     * Libera las conexiones abiertas; el ejecutor compartido sigue en marcha
+     */
+    @Override
+    public void close() {
+        httpClient.shutdownNow();
+    }
+}
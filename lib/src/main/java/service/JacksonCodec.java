@@ -0,0 +1,115 @@
+package service;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import model.Dumpster;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Codec basado en Jackson. El módulo Blackbird sustituye la reflexión por accesores
+ * generados con LambdaMetafactory. Se serializa por campos, como Gson, para que ambos
+ * codecs produzcan y acepten el mismo JSON.
+ */
+public class JacksonCodec implements JsonCodec {
+
+    private final ObjectMapper mapper;
+
+    public JacksonCodec() {
+        this.mapper = new ObjectMapper()
+                .registerModule(new BlackbirdModule())
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+                .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+                .setVisibility(PropertyAccessor.CREATOR, JsonAutoDetect.Visibility.ANY)
+                .addMixIn(Dumpster.class, DumpsterMixin.class);
+    }
+
+    @Override
+    public String name() {
+        return "jackson";
+    }
+
+    @Override
+    public String toJson(Object value) {
+        try {
+            return mapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    @Override
+    public <T> T fromJson(String json, Class<T> type) {
+        try {
+            return mapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON for " + type.getSimpleName(), e);
+        }
+    }
+
+    @Override
+    public <T> List<T> listFromJson(String json, Class<T> elementType) {
+        try {
+            List<T> values = mapper.readValue(json,
+                    mapper.getTypeFactory().constructCollectionType(List.class, elementType));
+            return values != null ? values : List.of();
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON for " + elementType.getSimpleName() + " list", e);
+        }
+    }
+
+    @Override
+    public <T> Stream<T> streamArray(InputStream body, Class<T> elementType) throws IOException {
+        // Con un array en la raíz, MappingIterator recorre directamente sus elementos
+        MappingIterator<T> iterator = mapper.readerFor(elementType).readValues(body);
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+                        false)
+                .onClose(() -> {
+                    try {
+                        iterator.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Equivalente Jackson de las anotaciones @SerializedName de Dumpster. Los campos de los que
+     * dependen valores derivados se asignan por su setter, igual que en el TypeAdapter de Gson
+     */
+    private abstract static class DumpsterMixin {
+        @JsonProperty("address")
+        private String location;
+
+        @JsonSetter("capacity")
+        abstract void setCapacity(Integer capacity);
+
+        @JsonSetter("currentFill")
+        abstract void setCurrentFill(Integer currentFill);
+
+        @JsonSetter("fillLevel")
+        abstract void setFillLevel(String fillLevel);
+    }
+}
@@ -0,0 +1,109 @@
+package service;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Decodifica un array JSON elemento a elemento directamente desde un InputStream,
+ * sin materializar el cuerpo completo como String.
+ */
+public class JsonArrayIterator<T> implements Iterator<T>, AutoCloseable {
+
+    private final Gson gson;
+    private final Type elementType;
+    private final JsonReader reader;
+    private boolean finished;
+
+    public JsonArrayIterator(Gson gson, InputStream body, Type elementType) throws IOException {
+        this.gson = gson;
+        this.elementType = elementType;
+        this.reader = new JsonReader(new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)));
+        try {
+            // Un cuerpo vacío se trata como array vacío (peek() lanza EOFException sobre un documento vacío)
+            if (isEmptyDocument()) {
+                finished = true;
+            } else {
+                reader.beginArray();
+            }
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    private boolean isEmptyDocument() throws IOException {
+        try {
+            return reader.peek() == JsonToken.END_DOCUMENT;
+        } catch (EOFException e) {
+            return true;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (finished) {
+            return false;
+        }
+        try {
+            if (reader.hasNext()) {
+                return true;
+            }
+            reader.endArray();
+            finished = true;
+            close();
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            return gson.fromJson(reader, elementType);
+        } catch (JsonParseException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Expone el iterador como Stream; cerrar el Stream libera la conexión
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL),
+                        false)
+                .onClose(this::close);
+    }
+
+    @Override
+    public void close() {
+        finished = true;
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Abstracción del formato JSON usada por los clientes de servicio.
+ * La implementación se elige al arrancar con la propiedad del sistema
+ * {@value #CODEC_PROPERTY} ("gson" por defecto, o "jackson").
+ */
+public interface JsonCodec {
+
+    String CODEC_PROPERTY = "ecoembes.json.codec";
+
+    String name();
+
+    String toJson(Object value);
+
+    <T> T fromJson(String json, Class<T> type);
+
+    <T> List<T> listFromJson(String json, Class<T> elementType);
+
+    /**
+     * Decodifica un array JSON elemento a elemento; cerrar el Stream cierra el InputStream
+     */
+    <T> Stream<T> streamArray(InputStream body, Class<T> elementType) throws IOException;
+
+    static JsonCodec getDefault() {
+        return DefaultCodecHolder.INSTANCE;
+    }
+
+    static JsonCodec forName(String name) {
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "gson" -> new GsonCodec();
+            case "jackson" -> new JacksonCodec();
+            default -> throw new IllegalArgumentException("Unknown JSON codec: " + name);
+        };
+    }
+
+    final class DefaultCodecHolder {
+        private static final JsonCodec INSTANCE = forName(System.getProperty(CODEC_PROPERTY, "gson"));
+
+        private DefaultCodecHolder() {
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package service;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import model.Dumpster;
+import model.RecyclingPlant;
+import model.UsageRecord;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * TypeAdapters escritos a mano para el paquete model. Leen los campos por nombre
+ * directamente del JsonReader, sin reflexión, y omiten los valores null al escribir
+ * igual que el adaptador reflexivo de Gson.
+ */
+public final class ModelTypeAdapters {
+
+    private ModelTypeAdapters() {
+    }
+
+    public static GsonBuilder register(GsonBuilder builder) {
+        DumpsterAdapter dumpsterAdapter = new DumpsterAdapter();
+        RecyclingPlantAdapter plantAdapter = new RecyclingPlantAdapter(dumpsterAdapter);
+        dumpsterAdapter.plantAdapter = plantAdapter;
+
+        return builder
+                .registerTypeAdapter(LocalDate.class, new LocalDateAdapter().nullSafe())
+                .registerTypeAdapter(Dumpster.class, dumpsterAdapter.nullSafe())
+                .registerTypeAdapter(RecyclingPlant.class, plantAdapter.nullSafe())
+                .registerTypeAdapter(UsageRecord.class, new UsageRecordAdapter().nullSafe());
+    }
+
+    static class DumpsterAdapter extends TypeAdapter<Dumpster> {
+        private RecyclingPlantAdapter plantAdapter;
+
+        @Override
+        public void write(JsonWriter out, Dumpster dumpster) throws IOException {
+            out.beginObject();
+            if (dumpster.getId() != null) out.name("id").value(dumpster.getId());
+            if (dumpster.getLocation() != null) out.name("address").value(dumpster.getLocation());
+            if (dumpster.getPostalCode() != null) out.name("postalCode").value(dumpster.getPostalCode());
+            if (dumpster.getCapacity() != null) out.name("capacity").value(dumpster.getCapacity());
+            if (dumpster.getCurrentFill() != null) out.name("currentFill").value(dumpster.getCurrentFill());
+            if (dumpster.getFillLevel() != null) out.name("fillLevel").value(dumpster.getFillLevel());
+            if (dumpster.getAssignedPlant() != null) {
+                out.name("assignedPlant");
+                plantAdapter.write(out, dumpster.getAssignedPlant());
+            }
+            out.endObject();
+        }
+
+        @Override
+        public Dumpster read(JsonReader in) throws IOException {
+            Dumpster dumpster = new Dumpster();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "id" -> dumpster.setId(in.nextLong());
+                    case "address" -> dumpster.setLocation(in.nextString());
+                    case "postalCode" -> dumpster.setPostalCode(in.nextInt());
+                    case "capacity" -> dumpster.setCapacity(in.nextInt());
+                    case "currentFill" -> dumpster.setCurrentFill(in.nextInt());
+                    case "fillLevel" -> dumpster.setFillLevel(in.nextString());
+                    case "assignedPlant" -> dumpster.setAssignedPlant(plantAdapter.read(in));
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return dumpster;
+        }
+    }
+
+    static class RecyclingPlantAdapter extends TypeAdapter<RecyclingPlant> {
+        private final DumpsterAdapter dumpsterAdapter;
+
+        RecyclingPlantAdapter(DumpsterAdapter dumpsterAdapter) {
+            this.dumpsterAdapter = dumpsterAdapter;
+        }
+
+        @Override
+        public void write(JsonWriter out, RecyclingPlant plant) throws IOException {
+            out.beginObject();
+            if (plant.getName() != null) out.name("name").value(plant.getName());
+            if (plant.getLocation() != null) out.name("location").value(plant.getLocation());
+            out.name("postalCode").value(plant.getPostalCode());
+            out.name("maxCapacity").value(plant.getMaxCapacity());
+            out.name("currentFill").value(plant.getCurrentFill());
+            if (plant.getAssignments() != null) {
+                out.name("assignments").beginArray();
+                for (Dumpster dumpster : plant.getAssignments()) {
+                    dumpsterAdapter.write(out, dumpster);
+                }
+                out.endArray();
+            }
+            out.endObject();
+        }
+
+        @Override
+        public RecyclingPlant read(JsonReader in) throws IOException {
+            RecyclingPlant plant = new RecyclingPlant();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "name" -> plant.setName(in.nextString());
+                    case "location" -> plant.setLocation(in.nextString());
+                    case "postalCode" -> plant.setPostalCode(in.nextInt());
+                    case "maxCapacity" -> plant.setMaxCapacity(in.nextInt());
+                    case "currentFill" -> plant.setCurrentFill(in.nextInt());
+                    case "assignments" -> {
+                        in.beginArray();
+                        while (in.hasNext()) {
+                            plant.addAssignment(dumpsterAdapter.read(in));
+                        }
+                        in.endArray();
+                    }
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return plant;
+        }
+    }
+
+    static class UsageRecordAdapter extends TypeAdapter<UsageRecord> {
+        private final LocalDateAdapter dateAdapter = new LocalDateAdapter();
+
+        @Override
+        public void write(JsonWriter out, UsageRecord record) throws IOException {
+            out.beginObject();
+            if (record.getDumpsterId() != null) out.name("dumpsterId").value(record.getDumpsterId());
+            if (record.getDate() != null) {
+                out.name("date");
+                dateAdapter.write(out, record.getDate());
+            }
+            out.name("estimatedNumCont").value(record.getEstimatedNumCont());
+            if (record.getFillLevel() != null) out.name("fillLevel").value(record.getFillLevel());
+            out.endObject();
+        }
+
+        @Override
+        public UsageRecord read(JsonReader in) throws IOException {
+            UsageRecord record = new UsageRecord();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "dumpsterId" -> record.setDumpsterId(in.nextLong());
+                    case "date" -> record.setDate(dateAdapter.read(in));
+                    case "estimatedNumCont" -> record.setEstimatedNumCont(in.nextInt());
+                    case "fillLevel" -> record.setFillLevel(in.nextString());
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return record;
+        }
+    }
+
+    /**
+     * Fechas ISO (yyyy-MM-dd, con o sin parte horaria) y el formato array [y, m, d]
+     * que usa Jackson cuando el servidor escribe las fechas como timestamps.
+     */
+    static class LocalDateAdapter extends TypeAdapter<LocalDate> {
+
+        @Override
+        public void write(JsonWriter out, LocalDate date) throws IOException {
+            out.value(date.toString());
+        }
+
+        @Override
+        public LocalDate read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.BEGIN_ARRAY) {
+                in.beginArray();
+                int year = in.nextInt();
+                int month = in.nextInt();
+                int day = in.nextInt();
+                while (in.hasNext()) {
+                    in.skipValue();
+                }
+                in.endArray();
+                return LocalDate.of(year, month, day);
+            }
+            return parseIsoDate(in.nextString());
+        }
+
+        static LocalDate parseIsoDate(String text) {
+            if (text.length() < 10 || text.charAt(4) != '-' || text.charAt(7) != '-'
+                    || (text.length() > 10 && text.charAt(10) != 'T' && text.charAt(10) != ' ')) {
+                // Años fuera de 0000-9999 u otros formatos: se delega en el parser estándar
+                try {
+                    return LocalDate.parse(text);
+                } catch (RuntimeException e) {
+                    throw new JsonSyntaxException("Invalid date: " + text, e);
+                }
+            }
+            int year = digits(text, 0, 4);
+            int month = digits(text, 5, 7);
+            int day = digits(text, 8, 10);
+            try {
+                return LocalDate.of(year, month, day);
+            } catch (RuntimeException e) {
+                throw new JsonSyntaxException("Invalid date: " + text, e);
+            }
+        }
+
+        private static int digits(String text, int start, int end) {
+            int value = 0;
+            for (int i = start; i < end; i++) {
+                int digit = text.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    throw new JsonSyntaxException("Invalid date: " + text);
+                }
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+    }
+}
@@ -1,42 +1,49 @@
 package service;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
-
 import model.AssignRequest;
 import model.RecyclingPlant;
 
 import java.io.IOException;
-import java.lang.reflect.Type;
-import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class PlantServiceClient {
 
     private final String baseUrl;
-    private final HttpClient httpClient;
-    private final Gson gson;
+    private final HttpTransport transport;
+    private final JsonCodec codec;
+
+    public PlantServiceClient(String baseUrl, HttpTransport transport) {
+        this(baseUrl, transport, JsonCodec.getDefault());
+    }
 
-    public PlantServiceClient(String baseUrl) {
+    public PlantServiceClient(String baseUrl, HttpTransport transport, JsonCodec codec) {
         this.baseUrl = baseUrl;
-        this.httpClient = HttpClient.newHttpClient();
-        this.gson = new GsonBuilder().create();
+        this.transport = transport;
+        this.codec = codec;
     }
 
     public List<RecyclingPlant> getAllPlants(String token) throws IOException, InterruptedException {
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(baseUrl + "/recyclingPlants"))
+        return transport.send(allPlantsRequest(token), HttpResponse.BodyHandlers.ofString(),
+                this::handleAllPlants);
+    }
+
+    public CompletableFuture<List<RecyclingPlant>> getAllPlantsAsync(String token) {
+        return transport.sendAsync(allPlantsRequest(token), HttpResponse.BodyHandlers.ofString(),
+                this::handleAllPlants);
+    }
+
+    private HttpRequest allPlantsRequest(String token) {
+        return transport.newRequest(baseUrl + "/recyclingPlants")
                 .header("Token", token)
                 .header("Content-Type", "application/json")
                 .GET()
                 .build();
+    }
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
+    private List<RecyclingPlant> handleAllPlants(HttpResponse<String> response) throws IOException {
         if (response.statusCode() == 401) {
             throw new IllegalStateException("Unauthorized - Invalid token");
         }
@@ -49,22 +56,29 @@ public class PlantServiceClient {
             throw new IOException("Error during plant retrieval:" + response.statusCode());
         }
 
-        Type listType = new TypeToken<List<RecyclingPlant>>() {}.getType();
-        return gson.fromJson(response.body(), listType);
+        return codec.listFromJson(response.body(), RecyclingPlant.class);
     }
-    
+
     public Integer getPlantCapacity(String token, String plantName, String date)
             throws IOException, InterruptedException {
+        return transport.send(plantCapacityRequest(token, plantName, date), HttpResponse.BodyHandlers.ofString(),
+                this::handlePlantCapacity);
+    }
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(baseUrl + "/recyclingPlants/" + plantName + "/capacity?date=" + date))
+    public CompletableFuture<Integer> getPlantCapacityAsync(String token, String plantName, String date) {
+        return transport.sendAsync(plantCapacityRequest(token, plantName, date), HttpResponse.BodyHandlers.ofString(),
+                this::handlePlantCapacity);
+    }
+
+    private HttpRequest plantCapacityRequest(String token, String plantName, String date) {
+        return transport.newRequest(baseUrl + "/recyclingPlants/" + plantName + "/capacity?date=" + date)
                 .header("Token", token)
                 .header("Content-Type", "application/json")
                 .GET()
                 .build();
+    }
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
+    private Integer handlePlantCapacity(HttpResponse<String> response) throws IOException {
         if (response.statusCode() == 401) {
             throw new IllegalStateException("Not authorized - Invalid token");
         }
@@ -77,25 +91,34 @@ public class PlantServiceClient {
             throw new IOException("Error retrieving capacity:" + response.statusCode());
         }
 
-        return gson.fromJson(response.body(), Integer.class);
+        return codec.fromJson(response.body(), Integer.class);
     }
 
-    
+
     public boolean assignDumpstersToPlant(String token, String plantName, List<Long> dumpsterIds)
             throws IOException, InterruptedException {
+        return transport.send(assignRequest(token, plantName, dumpsterIds), HttpResponse.BodyHandlers.ofString(),
+                this::handleAssign);
+    }
+
+    public CompletableFuture<Boolean> assignDumpstersToPlantAsync(String token, String plantName,
+                                                                  List<Long> dumpsterIds) {
+        return transport.sendAsync(assignRequest(token, plantName, dumpsterIds), HttpResponse.BodyHandlers.ofString(),
+                this::handleAssign);
+    }
 
+    private HttpRequest assignRequest(String token, String plantName, List<Long> dumpsterIds) {
         AssignRequest payload = new AssignRequest(plantName, dumpsterIds);
-        String jsonBody = gson.toJson(payload);
+        String jsonBody = codec.toJson(payload);
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(baseUrl + "/recyclingPlants/assignDumpster"))
+        return transport.newRequest(baseUrl + "/recyclingPlants/assignDumpster")
                 .header("Token", token)
                 .header("Content-Type", "application/json")
                 .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
                 .build();
+    }
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
+    private boolean handleAssign(HttpResponse<String> response) {
         if (response.statusCode() == 401) {
             throw new IllegalStateException("Unauthorized - invalide token");
         }
@@ -5,7 +5,6 @@ import controller.DumpsterController;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.List;
 
 public class DumpsterManagementPanel extends JPanel {
 
@@ -19,11 +18,10 @@ public class DumpsterManagementPanel extends JPanel {
     private JButton btnCreate;
     private JButton btnUpdate;
     private JComboBox<Dumpster> cmbDumpsters;
-    private List<Dumpster> dumpsters;
 
     public DumpsterManagementPanel(MainApplicationFrame parentFrame) {
         this.parentFrame = parentFrame;
-        this.controller = new DumpsterController("http://localhost:8899");
+        this.controller = parentFrame.getDumpsterController();
         
         setLayout(new BorderLayout());
         setBackground(new Color(245, 245, 245));
@@ -166,27 +164,15 @@ public class DumpsterManagementPanel extends JPanel {
     }
 
     private void loadDumpsters() {
-        SwingWorker<List<Dumpster>, Void> worker = new SwingWorker<>() {
-            @Override
-            protected List<Dumpster> doInBackground() throws Exception {
-                return controller.getAllDumpsters();
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    dumpsters = get();
+        EdtCompletion.deliver(controller.getAllDumpstersAsync(),
+                dumpsters -> {
                     cmbDumpsters.removeAllItems();
                     for (Dumpster d : dumpsters) {
                         cmbDumpsters.addItem(d);
                     }
-                } catch (Exception e) {
-                    JOptionPane.showMessageDialog(DumpsterManagementPanel.this,
-                            "Error loading: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-                }
-            }
-        };
-        worker.execute();
+                },
+                e -> JOptionPane.showMessageDialog(DumpsterManagementPanel.this,
+                        "Error loading: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
     }
 
     private void populateFields() {
@@ -199,33 +185,47 @@ public class DumpsterManagementPanel extends JPanel {
         }
     }
 
+    /**
+     * Crea el dumpster sin bloquear el EDT; el creado se añade al selector sin recargar la lista
+     */
     private void createDumpster() {
+        String location = txtLocation.getText();
+        int postalCode;
+        int capacity;
+        int currentFill;
         try {
-            String location = txtLocation.getText();
-            int postalCode = Integer.parseInt(txtPostalCode.getText());
-            int capacity = Integer.parseInt(txtCapacity.getText());
-            int currentFill = Integer.parseInt(txtCurrentFill.getText());
-
-            Dumpster created = controller.createDumpster(location, postalCode, capacity, currentFill);
-            
-            JOptionPane.showMessageDialog(this, 
-                "Dumpster created with ID: " + created.getId(),
-                "Success",
-                JOptionPane.INFORMATION_MESSAGE);
-            loadDumpsters();
+            postalCode = Integer.parseInt(txtPostalCode.getText());
+            capacity = Integer.parseInt(txtCapacity.getText());
+            currentFill = Integer.parseInt(txtCurrentFill.getText());
         } catch (NumberFormatException e) {
             JOptionPane.showMessageDialog(this, 
                 "Please enter valid numerical values", 
                 "Error", 
                 JOptionPane.ERROR_MESSAGE);
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, 
+            return;
+        }
+
+        setBusy(btnCreate, "Creating...");
+        EdtCompletion.deliver(controller.createDumpsterAsync(location, postalCode, capacity, currentFill),
+            created -> {
+                cmbDumpsters.addItem(created);
+                cmbDumpsters.setSelectedItem(created);
+                JOptionPane.showMessageDialog(this, 
+                    "Dumpster created with ID: " + created.getId(),
+                    "Success",
+                    JOptionPane.INFORMATION_MESSAGE);
+            },
+            e -> JOptionPane.showMessageDialog(this, 
                 "Error creating: " + e.getMessage(), 
                 "Error", 
-                JOptionPane.ERROR_MESSAGE);
-        }
+                JOptionPane.ERROR_MESSAGE),
+            () -> setIdle(btnCreate, "Create New Dumpster"));
     }
 
+    /**
+     * Actualiza el llenado sin bloquear el EDT. El selector muestra el nuevo valor en el
+     * momento y vuelve al anterior si el servidor rechaza el cambio.
+     */
     private void updateDumpster() {
         Dumpster selected = (Dumpster) cmbDumpsters.getSelectedItem();
         if (selected == null) {
@@ -235,31 +235,67 @@ public class DumpsterManagementPanel extends JPanel {
                 JOptionPane.ERROR_MESSAGE);
             return;
         }
+        int currentFill;
         try {
-            int currentFill = Integer.parseInt(txtCurrentFill.getText());
-            boolean success = controller.updateDumpsterFill(selected.getId(), currentFill);
-            if (success) {
-                JOptionPane.showMessageDialog(this, 
-                    "Dumpster updated successfully",
-                    "Success",
-                    JOptionPane.INFORMATION_MESSAGE);
-                loadDumpsters();
-            } else {
-                JOptionPane.showMessageDialog(this, 
-                    "Dumpster not found", 
-                    "Error", 
-                    JOptionPane.ERROR_MESSAGE);
-            }
+            currentFill = Integer.parseInt(txtCurrentFill.getText());
         } catch (NumberFormatException e) {
             JOptionPane.showMessageDialog(this, 
                 "Please enter a valid numeric value", 
                 "Error", 
                 JOptionPane.ERROR_MESSAGE);
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, 
-                "Update error: " + e.getMessage(), 
-                "Error", 
-                JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        Integer previousFill = selected.getCurrentFill();
+        selected.setCurrentFill(currentFill);
+        cmbDumpsters.repaint();
+
+        setBusy(btnUpdate, "Updating...");
+        EdtCompletion.deliver(controller.updateDumpsterFillAsync(selected.getId(), currentFill),
+            success -> {
+                if (success) {
+                    JOptionPane.showMessageDialog(this, 
+                        "Dumpster updated successfully",
+                        "Success",
+                        JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    revertFill(selected, previousFill);
+                    JOptionPane.showMessageDialog(this, 
+                        "Dumpster not found", 
+                        "Error", 
+                        JOptionPane.ERROR_MESSAGE);
+                }
+            },
+            e -> {
+                revertFill(selected, previousFill);
+                JOptionPane.showMessageDialog(this, 
+                    "Update error: " + e.getMessage(), 
+                    "Error", 
+                    JOptionPane.ERROR_MESSAGE);
+            },
+            () -> setIdle(btnUpdate, "Update Filling"));
+    }
+
+    private void revertFill(Dumpster dumpster, Integer previousFill) {
+        dumpster.setCurrentFill(previousFill);
+        cmbDumpsters.repaint();
+        if (cmbDumpsters.getSelectedItem() == dumpster) {
+            populateFields();
         }
     }
+
+    // Mientras hay una operación en curso no se puede lanzar otra
+    private void setBusy(JButton active, String text) {
+        btnCreate.setEnabled(false);
+        btnUpdate.setEnabled(false);
+        active.setText(text);
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+    }
+
+    private void setIdle(JButton active, String text) {
+        btnCreate.setEnabled(true);
+        btnUpdate.setEnabled(true);
+        active.setText(text);
+        setCursor(Cursor.getDefaultCursor());
+    }
 }
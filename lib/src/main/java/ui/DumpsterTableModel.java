@@ -0,0 +1,204 @@
+package ui;
+
+import controller.DumpsterStore;
+import controller.FleetColumns;
+import model.Dumpster;
+import model.FillLevel;
+import model.RecyclingPlant;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Modelo de la tabla de dumpsters respaldado por una FleetColumns: los datos están en
+ * columnas primitivas y los valores de cada celda se obtienen al pintarla. El índice
+ * id → fila de la flota permite aplicar los cambios de cada sincronización con eventos
+ * por fila en lugar de reconstruir la tabla entera. Debe usarse solo desde el EDT.
+ */
+public class DumpsterTableModel extends AbstractTableModel {
+
+    public static final int COL_ID = 0;
+    public static final int COL_LOCATION = 1;
+    public static final int COL_POSTAL_CODE = 2;
+    public static final int COL_CAPACITY = 3;
+    public static final int COL_FILL = 4;
+    public static final int COL_PERCENTAGE = 5;
+    public static final int COL_STATE = 6;
+    public static final int COL_PLANT = 7;
+
+    private static final String[] COLUMNS = {"ID", "Location", "Postal Code", "Capacity", "Fill", "%", "State", "Plant"};
+    private static final Class<?>[] COLUMN_CLASSES = {
+        Long.class, String.class, Integer.class, Integer.class, Integer.class, Double.class, FillLevel.class, Object.class
+    };
+
+    // Por encima de este número de filas afectadas se agrupan los eventos en uno solo
+    private static final int ROW_EVENT_THRESHOLD = 16;
+
+    private FleetColumns rows = new FleetColumns();
+
+    public void setDumpsters(List<Dumpster> dumpsters) {
+        rows = FleetColumns.of(dumpsters);
+        fireTableDataChanged();
+    }
+
+    /**
+     * Aplica el resultado de una sincronización. Es idempotente: un alta ya presente
+     * se trata como modificación y las bajas desconocidas se ignoran.
+     */
+    public void applyChanges(DumpsterStore.Changes changes) {
+        int firstInserted = rows.size();
+        List<Integer> updatedRows = new ArrayList<>();
+
+        List<Dumpster> upserts = new ArrayList<>(changes.getUpdated().size() + changes.getAdded().size());
+        upserts.addAll(changes.getUpdated());
+        upserts.addAll(changes.getAdded());
+        for (Dumpster dumpster : upserts) {
+            int row = rows.put(dumpster);
+            if (row >= 0 && row < firstInserted) {
+                updatedRows.add(row);
+            }
+        }
+
+        // Las altas van al final, así que no desplazan las filas modificadas
+        if (rows.size() > firstInserted) {
+            fireTableRowsInserted(firstInserted, rows.size() - 1);
+        }
+        if (updatedRows.size() > ROW_EVENT_THRESHOLD) {
+            fireTableRowsUpdated(Collections.min(updatedRows), Collections.max(updatedRows));
+        } else {
+            for (int row : updatedRows) {
+                fireTableRowsUpdated(row, row);
+            }
+        }
+
+        List<Dumpster> removed = changes.getRemoved();
+        if (removed.size() > ROW_EVENT_THRESHOLD) {
+            Set<Long> removedIds = new HashSet<>();
+            for (Dumpster dumpster : removed) {
+                removedIds.add(dumpster.getId());
+            }
+            if (rows.removeAll(removedIds) > 0) {
+                fireTableDataChanged();
+            }
+        } else {
+            for (Dumpster dumpster : removed) {
+                removeDumpster(dumpster.getId());
+            }
+        }
+    }
+
+    /**
+     * Inserta el dumpster o sustituye la fila con su mismo id
+     */
+    public void putDumpster(Dumpster dumpster) {
+        int previousSize = rows.size();
+        int row = rows.put(dumpster);
+        if (row < 0) return;
+
+        if (rows.size() > previousSize) {
+            fireTableRowsInserted(row, row);
+        } else {
+            fireTableRowsUpdated(row, row);
+        }
+    }
+
+    public void removeDumpster(Long id) {
+        int row = rows.remove(id);
+        if (row >= 0) {
+            fireTableRowsDeleted(row, row);
+        }
+    }
+
+    /**
+     * Notifica que los datos de un dumpster han cambiado en sitio
+     */
+    public void fireDumpsterUpdated(Long id) {
+        int row = rows.indexOf(id);
+        if (row >= 0) {
+            fireTableRowsUpdated(row, row);
+        }
+    }
+
+    /**
+     * Dumpster de la fila; es una copia, los cambios se aplican con putDumpster o setValueAt
+     */
+    public Dumpster getDumpsterAt(int row) {
+        return rows.getDumpster(row);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return COLUMN_CLASSES[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return column == COL_PLANT;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return switch (column) {
+            case COL_ID -> rows.getId(row);
+            case COL_LOCATION -> rows.getLocation(row);
+            case COL_POSTAL_CODE -> rows.getPostalCode(row);
+            case COL_CAPACITY -> rows.getCapacity(row);
+            case COL_FILL -> rows.getCurrentFill(row);
+            case COL_PERCENTAGE -> rows.getFillPercentage(row);
+            case COL_STATE -> rows.getFillLevel(row);
+            case COL_PLANT -> rows.getAssignedPlant(row);
+            default -> null;
+        };
+    }
+
+    /**
+     * Id de la fila sin caja, para pintar sin pasar por getValueAt
+     */
+    public long getIdAt(int row) {
+        return rows.getId(row);
+    }
+
+    /**
+     * Valor sin caja de una columna entera (código postal, capacidad o llenado);
+     * FleetColumns.NULL_INT si falta
+     */
+    public int getIntAt(int row, int column) {
+        return switch (column) {
+            case COL_POSTAL_CODE -> rows.postalCodeAt(row);
+            case COL_CAPACITY -> rows.capacityAt(row);
+            case COL_FILL -> rows.currentFillAt(row);
+            default -> throw new IllegalArgumentException("Columna no entera: " + column);
+        };
+    }
+
+    public double getFillPercentageAt(int row) {
+        return rows.getFillPercentage(row);
+    }
+
+    @Override
+    public void setValueAt(Object value, int row, int column) {
+        if (column != COL_PLANT) return;
+
+        rows.setAssignedPlant(row, value instanceof RecyclingPlant plant ? plant : null);
+        fireTableCellUpdated(row, column);
+    }
+}
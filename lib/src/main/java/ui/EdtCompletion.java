@@ -0,0 +1,42 @@
+package ui;
+
+import utils.Futures;
+
+import javax.swing.SwingUtilities;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Entrega en el EDT el resultado de una operación asíncrona del controlador.
+ * Sustituye al patrón doInBackground/done de SwingWorker: el trabajo ya se hace fuera
+ * del EDT (HttpClient asíncrono o ServiceExecutor) y aquí solo se vuelve a Swing.
+ * Una operación cancelada no invoca onSuccess ni onError, pero sí onFinally.
+ */
+final class EdtCompletion {
+
+    private EdtCompletion() {
+    }
+
+    static <T> void deliver(CompletableFuture<T> future, Consumer<? super T> onSuccess,
+                            Consumer<Exception> onError) {
+        deliver(future, onSuccess, onError, null);
+    }
+
+    static <T> void deliver(CompletableFuture<T> future, Consumer<? super T> onSuccess,
+                            Consumer<Exception> onError, Runnable onFinally) {
+        future.whenComplete((value, error) -> SwingUtilities.invokeLater(() -> {
+            try {
+                if (error == null) {
+                    onSuccess.accept(value);
+                } else if (!Futures.isCancellation(error)) {
+                    Throwable cause = Futures.unwrap(error);
+                    onError.accept(cause instanceof Exception exception ? exception : new Exception(cause));
+                }
+            } finally {
+                if (onFinally != null) {
+                    onFinally.run();
+                }
+            }
+        }));
+    }
+}
@@ -1,7 +1,6 @@
 package ui;
 
 import controller.AuthController;
-import controller.AuthController.LoginResult;
 
 import javax.swing.*;
 import java.awt.*;
@@ -17,7 +16,7 @@ public class LoginPanel extends JPanel {
 
     public LoginPanel(MainApplicationFrame parentFrame) {
         this.parentFrame = parentFrame;
-        this.authController = new AuthController("http://localhost:8899");
+        this.authController = new AuthController(MainApplicationFrame.BASE_URL);
         
         setLayout(new GridBagLayout());
         setBackground(new Color(245, 245, 245));
@@ -112,34 +111,22 @@ public class LoginPanel extends JPanel {
         btnLogin.setEnabled(false);
         btnLogin.setText("Connecting...");
 
-        SwingWorker<LoginResult, Void> worker = new SwingWorker<>() {
-            @Override
-            protected LoginResult doInBackground() throws Exception {
-                String email = txtEmail.getText().trim();
-                String password = new String(txtPassword.getPassword());
-                return authController.login(email, password);
-            }
+        String email = txtEmail.getText().trim();
+        String password = new String(txtPassword.getPassword());
 
-            @Override
-            protected void done() {
-                try {
-                    LoginResult result = get();
-
-                    if (result.isSuccess()) {
-                        onLoginSuccess();
-                    } else {
-                        onLoginFailure(result.getMessage());
-                    }
-                } catch (Exception ex) {
-                    onLoginFailure("Unexpected Error: " + ex.getMessage());
-                } finally {
-                    btnLogin.setEnabled(true);
-                    btnLogin.setText("Log in");
+        EdtCompletion.deliver(authController.loginAsync(email, password),
+            result -> {
+                if (result.isSuccess()) {
+                    onLoginSuccess();
+                } else {
+                    onLoginFailure(result.getMessage());
                 }
-            }
-        };
-
-        worker.execute();
+            },
+            ex -> onLoginFailure("Unexpected Error: " + ex.getMessage()),
+            () -> {
+                btnLogin.setEnabled(true);
+                btnLogin.setText("Log in");
+            });
     }
 
     private void onLoginSuccess() {
@@ -1,5 +1,7 @@
 package ui;
 
+import controller.DumpsterController;
+
 import javax.swing.*;
 import java.awt.*;
 
@@ -7,7 +9,9 @@ public class MainApplicationFrame extends JFrame {
     
     private CardLayout cardLayout;
     private JPanel mainPanel;
+    private DumpsterController dumpsterController;
     
+    public static final String BASE_URL = "http://localhost:8899";
     public static final String LOGIN_PANEL = "LOGIN";
     public static final String MAIN_PANEL = "MAIN";
     public static final String MANAGEMENT_PANEL = "MANAGEMENT";
@@ -34,6 +38,16 @@ public class MainApplicationFrame extends JFrame {
     public void showPanel(String panelName) {
         cardLayout.show(mainPanel, panelName);
     }
+
+    /**
+     * Controlador compartido por los paneles durante la sesión actual
+     */
+    public DumpsterController getDumpsterController() {
+        if (dumpsterController == null) {
+            dumpsterController = new DumpsterController(BASE_URL);
+        }
+        return dumpsterController;
+    }
     
 
     public void initializeMainPanel() {
@@ -72,6 +86,7 @@ public class MainApplicationFrame extends JFrame {
                 mainPanel.remove(comp);
             }
         }
+        dumpsterController = null;
         
         showPanel(LOGIN_PANEL);
     }
@@ -1,42 +1,118 @@
 package ui;
 
+import controller.AdaptivePoller;
 import controller.AuthController;
+import controller.BulkAssignResult;
 import controller.DumpsterController;
 import controller.DumpsterController.ControllerException;
+import controller.DumpsterStore;
+import controller.FleetColumns;
+import controller.UsageExportResult;
 import model.Dumpster;
+import model.FillLevel;
 import model.RecyclingPlant;
+import service.DumpsterEventStream;
 
 import javax.swing.*;
 import javax.swing.table.*;
 import java.awt.*;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public class MainPanel extends JPanel {
 
+    private static final int CAPACITY_LOOKUP_CONCURRENCY = 8;
+
+    private static final Font TABLE_FONT = new Font("Segoe UI", Font.PLAIN, 12);
+    private static final Font CELL_BUTTON_FONT = new Font("Segoe UI", Font.PLAIN, 11);
+    private static final Color ASSIGN_BUTTON_COLOR = new Color(66, 133, 244);
+
     private final MainApplicationFrame parentFrame;
     private final DumpsterController dumpsterController;
     private final AuthController authController;
     
     private JTable tableDumpsters;
-    private DefaultTableModel tableModel;
+    private DumpsterTableModel tableModel;
     private JButton btnRefresh;
+    private JButton btnAssignSelected;
+    private JButton btnExportUsage;
     private JLabel lblStatus;
-    private List<Dumpster> currentDumpsters;
+    private JLabel lblLive;
+    private final DumpsterStore.Listener dumpsterListener =
+        changes -> SwingUtilities.invokeLater(() -> tableModel.applyChanges(changes));
+    private final AdaptivePoller poller;
+    private final WindowAdapter windowListener = new WindowAdapter() {
+        @Override
+        public void windowIconified(WindowEvent e) {
+            updatePolling(false);
+        }
+
+        @Override
+        public void windowDeiconified(WindowEvent e) {
+            updatePolling(true);
+        }
+
+        @Override
+        public void windowActivated(WindowEvent e) {
+            updatePolling(true);
+        }
+    };
 
     public MainPanel(MainApplicationFrame parentFrame) {
         this.parentFrame = parentFrame;
         
-        String baseUrl = "http://localhost:8899";
-        this.dumpsterController = new DumpsterController(baseUrl);
-        this.authController = new AuthController(baseUrl);
+        this.dumpsterController = parentFrame.getDumpsterController();
+        this.authController = new AuthController(MainApplicationFrame.BASE_URL);
         
         setLayout(new BorderLayout(0, 0));
         setBackground(new Color(245, 245, 245));
         
         initUI();
-        loadDumpsters();
+        dumpsterController.addDumpsterListener(dumpsterListener);
+        // Los cambios del servidor llegan a la tabla por el mismo listener del almacén
+        dumpsterController.startLiveUpdates(state -> SwingUtilities.invokeLater(() -> showLiveState(state)));
+        // Sin push, refresco automático solo mientras el panel está a la vista
+        poller = dumpsterController.createDumpsterPoller();
+        addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0) {
+                updatePolling(true);
+            }
+        });
+        parentFrame.addWindowListener(windowListener);
+
+        // Último estado conocido (de disco o de la sesión) mientras se revalida
+        List<Dumpster> cached = dumpsterController.getCachedDumpsters();
+        if (cached != null) {
+            tableModel.setDumpsters(cached);
+        }
+        loadDumpsters(false);
+    }
+
+    @Override
+    public void removeNotify() {
+        super.removeNotify();
+        dumpsterController.removeDumpsterListener(dumpsterListener);
+        dumpsterController.stopLiveUpdates();
+        parentFrame.removeWindowListener(windowListener);
+        poller.close();
+    }
+
+    // Se pausa con la ventana minimizada o con otra tarjeta a la vista; al volver se consulta en el acto
+    private void updatePolling(boolean pollNow) {
+        boolean minimized = (parentFrame.getExtendedState() & Frame.ICONIFIED) != 0;
+        if (!isShowing() || minimized) {
+            poller.pause();
+        } else if (pollNow) {
+            poller.pollNow();
+        } else {
+            poller.resume();
+        }
     }
 
     private void initUI() {
@@ -62,9 +138,17 @@ public class MainPanel extends JPanel {
         buttonPanel.setOpaque(false);
         
         btnRefresh = createHeaderButton("🔄 Refresh");
-        btnRefresh.addActionListener(e -> loadDumpsters());
+        btnRefresh.addActionListener(e -> loadDumpsters(true));
         buttonPanel.add(btnRefresh);
         
+        btnAssignSelected = createHeaderButton("📦 Assign Selected");
+        btnAssignSelected.addActionListener(e -> handleBulkAssignment());
+        buttonPanel.add(btnAssignSelected);
+
+        btnExportUsage = createHeaderButton("📤 Export Usage");
+        btnExportUsage.addActionListener(e -> handleUsageExport());
+        buttonPanel.add(btnExportUsage);
+
         JButton btnManage = createHeaderButton("⚙ Management");
         btnManage.addActionListener(e -> parentFrame.showManagementPanel());
         buttonPanel.add(btnManage);
@@ -90,18 +174,12 @@ public class MainPanel extends JPanel {
     }
 
     private JScrollPane createDumpstersTable() {
-        String[] columns = {"ID", "Location", "Postal Code", "Capacity", "Fill", "%", "State", "Plant"};
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == 7;
-            }
-        };
+        tableModel = new DumpsterTableModel();
 
         tableDumpsters = new JTable(tableModel);
-        tableDumpsters.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        tableDumpsters.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
         tableDumpsters.setRowHeight(32);
-        tableDumpsters.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        tableDumpsters.setFont(TABLE_FONT);
         tableDumpsters.setGridColor(new Color(220, 220, 220));
         tableDumpsters.setShowGrid(true);
         tableDumpsters.setIntercellSpacing(new Dimension(1, 1));
@@ -110,20 +188,19 @@ public class MainPanel extends JPanel {
         tableDumpsters.getTableHeader().setBackground(new Color(240, 240, 240));
 
        
-        tableDumpsters.getColumnModel().getColumn(6).setCellRenderer(new DefaultTableCellRenderer() {
-            @Override
-            public Component getTableCellRendererComponent(JTable table, Object value,
-                                                           boolean isSelected, boolean hasFocus, 
-                                                           int row, int column) {
-                Component c = super.getTableCellRendererComponent(table, "", isSelected, hasFocus, row, column);
-                if (!isSelected && currentDumpsters != null && row < currentDumpsters.size()) {
-                    Dumpster dumpster = currentDumpsters.get(table.convertRowIndexToModel(row));
-                    c.setBackground(dumpster.getFillLevelColor());
-                }
-                setText("");
-                return c;
-            }
-        });
+        tableDumpsters.getColumnModel().getColumn(DumpsterTableModel.COL_STATE)
+            .setCellRenderer(new FillLevelRenderer());
+
+        tableDumpsters.getColumnModel().getColumn(DumpsterTableModel.COL_ID)
+            .setCellRenderer(new IdRenderer());
+        tableDumpsters.getColumnModel().getColumn(DumpsterTableModel.COL_POSTAL_CODE)
+            .setCellRenderer(new IntRenderer("", SwingConstants.RIGHT));
+        tableDumpsters.getColumnModel().getColumn(DumpsterTableModel.COL_CAPACITY)
+            .setCellRenderer(new IntRenderer(" L", SwingConstants.LEADING));
+        tableDumpsters.getColumnModel().getColumn(DumpsterTableModel.COL_FILL)
+            .setCellRenderer(new IntRenderer(" L", SwingConstants.LEADING));
+        tableDumpsters.getColumnModel().getColumn(DumpsterTableModel.COL_PERCENTAGE)
+            .setCellRenderer(new PercentageRenderer());
 
         setupPlantColumn();
         tableDumpsters.setRowSorter(new TableRowSorter<>(tableModel));
@@ -143,30 +220,13 @@ public class MainPanel extends JPanel {
     }
 
     private void setupPlantColumn() {
-        tableDumpsters.getColumnModel().getColumn(7).setCellRenderer(new TableCellRenderer() {
-            JButton btn = new JButton("Assign");
-
-            @Override
-            public Component getTableCellRendererComponent(JTable table, Object value, 
-                                                           boolean isSelected, boolean hasFocus, 
-                                                           int row, int column) {
-                if (value instanceof RecyclingPlant plant) {
-                    JLabel lbl = new JLabel(plant.getName());
-                    lbl.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-                    return lbl;
-                } else {
-                    btn.setFont(new Font("Segoe UI", Font.PLAIN, 11));
-                    btn.setBackground(new Color(66, 133, 244));
-                    btn.setForeground(Color.WHITE);
-                    btn.setFocusPainted(false);
-                    return btn;
-                }
-            }
-        });
+        tableDumpsters.getColumnModel().getColumn(DumpsterTableModel.COL_PLANT)
+            .setCellRenderer(new PlantRenderer());
 
         tableDumpsters.getColumnModel().getColumn(7).setCellEditor(new DefaultCellEditor(new JTextField()) {
             private JButton btn = new JButton("Assign");
-            private Dumpster currentDumpster;
+            // Valor de la celda al empezar a editar: el editor nunca cambia la planta, lo hace el almacén
+            private Object editingValue;
 
             {
                 btn.addActionListener(e -> handlePlantAssignment());
@@ -175,14 +235,13 @@ public class MainPanel extends JPanel {
             @Override
             public Component getTableCellEditorComponent(JTable table, Object value, 
                                                           boolean isSelected, int row, int column) {
+                editingValue = value;
                 return btn;
             }
 
             @Override
             public Object getCellEditorValue() {
-                return currentDumpster != null && currentDumpster.getAssignedPlant() != null
-                        ? currentDumpster.getAssignedPlant()
-                        : null;
+                return editingValue;
             }
 
             private void handlePlantAssignment() {
@@ -190,118 +249,154 @@ public class MainPanel extends JPanel {
                 if (selectedRow == -1) return;
                 
                 int modelRow = tableDumpsters.convertRowIndexToModel(selectedRow);
-                currentDumpster = currentDumpsters.get(modelRow);
-
-                SwingWorker<List<RecyclingPlant>, Void> worker = new SwingWorker<>() {
-                    @Override
-                    protected List<RecyclingPlant> doInBackground() throws Exception {
-                        return dumpsterController.getAllRecyclingPlants();
-                    }
-
-                    @Override
-                    protected void done() {
-                        try {
-                            List<RecyclingPlant> plants = get();
-                            
-                            if (plants.isEmpty()) {
-                                JOptionPane.showMessageDialog(MainPanel.this, 
-                                    "There are no recycling plants available", 
-                                    "Info", 
-                                    JOptionPane.INFORMATION_MESSAGE);
-                                fireEditingStopped();
-                                return;
-                            }
-
-                            showPlantSelectionDialog(plants, currentDumpster, modelRow);
-                        } catch (Exception ex) {
-                            showError("Error loading plants", ex);
+                Dumpster dumpster = tableModel.getDumpsterAt(modelRow);
+
+                EdtCompletion.deliver(dumpsterController.getAllRecyclingPlantsAsync(),
+                    plants -> {
+                        // La fila la actualiza el listener del almacén, así que la edición no escribe nada
+                        cancelCellEditing();
+                        if (plants.isEmpty()) {
+                            JOptionPane.showMessageDialog(MainPanel.this, 
+                                "There are no recycling plants available", 
+                                "Info", 
+                                JOptionPane.INFORMATION_MESSAGE);
+                            return;
                         }
-                    }
-                };
-                worker.execute();
+
+                        showPlantSelectionDialog(plants, dumpster);
+                    },
+                    ex -> {
+                        cancelCellEditing();
+                        showError("Error loading plants", ex);
+                    });
             }
         });
     }
 
-    private void showPlantSelectionDialog(List<RecyclingPlant> plants, Dumpster dumpster, int modelRow) {
-        SwingWorker<String[], Void> worker = new SwingWorker<>() {
-            @Override
-            protected String[] doInBackground() throws Exception {
-                LocalDate today = LocalDate.now();
-                return plants.stream().map(p -> {
-                    try {
-                        Optional<Integer> cap = dumpsterController.getPlantCapacity(p.getName(), today);
-                        return p.getName() + " — " + cap.map(c -> c + "L").orElse("?");
-                    } catch (Exception ex) {
-                        return p.getName() + " — ?";
-                    }
-                }).toArray(String[]::new);
-            }
+    private void showPlantSelectionDialog(List<RecyclingPlant> plants, Dumpster dumpster) {
+        String selectedPlantName = selectPlant("Select recycling plant for Dumpster #" + dumpster.getId(), plants);
+        if (selectedPlantName != null) {
+            assignPlantToDumpster(dumpster, selectedPlantName);
+        }
+    }
 
-            @Override
-            protected void done() {
-                try {
-                    String[] plantChoices = get();
-                    
-                    String selectedEntry = (String) JOptionPane.showInputDialog(
-                        MainPanel.this,
-                        "Select recycling plant for Dumpster #" + dumpster.getId(),
-                        "Assign Plant", 
-                        JOptionPane.PLAIN_MESSAGE, 
-                        null,
-                        plantChoices, 
-                        plantChoices[0]
-                    );
-
-                    if (selectedEntry != null) {
-                        String selectedPlantName = selectedEntry.split(" — ")[0];
-                        assignPlantToDumpster(dumpster, selectedPlantName, plants, modelRow);
-                    }
-                } catch (Exception ex) {
-                    showError("Error displaying dialog", ex);
+    /**
+     * Muestra el diálogo de plantas rellenando las capacidades en segundo plano
+     * @return nombre de la planta elegida, o null si se cancela
+     */
+    private String selectPlant(String message, List<RecyclingPlant> plants) {
+        PlantSelectionDialog dialog = new PlantSelectionDialog(
+            SwingUtilities.getWindowAncestor(this),
+            message,
+            plants
+        );
+
+        List<String> plantNames = plants.stream().map(RecyclingPlant::getName).toList();
+        CompletableFuture<?> capacityLookup = dumpsterController.getPlantCapacitiesAsync(
+            plantNames,
+            LocalDate.now(),
+            CAPACITY_LOOKUP_CONCURRENCY,
+            (plantName, capacity) -> SwingUtilities.invokeLater(() -> dialog.setCapacity(plantName, capacity))
+        );
+
+        String selectedPlantName = dialog.showDialog();
+        capacityLookup.cancel(true);
+        return selectedPlantName;
+    }
+
+    private void handleBulkAssignment() {
+        int[] selectedRows = tableDumpsters.getSelectedRows();
+        if (selectedRows.length == 0) {
+            JOptionPane.showMessageDialog(this,
+                "Select one or more dumpsters first",
+                "Info",
+                JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        List<Long> dumpsterIds = new ArrayList<>(selectedRows.length);
+        for (int row : selectedRows) {
+            dumpsterIds.add(tableModel.getDumpsterAt(tableDumpsters.convertRowIndexToModel(row)).getId());
+        }
+
+        btnAssignSelected.setEnabled(false);
+        EdtCompletion.deliver(dumpsterController.getAllRecyclingPlantsAsync(),
+            plants -> {
+                if (plants.isEmpty()) {
+                    btnAssignSelected.setEnabled(true);
+                    JOptionPane.showMessageDialog(MainPanel.this,
+                        "There are no recycling plants available",
+                        "Info",
+                        JOptionPane.INFORMATION_MESSAGE);
+                    return;
                 }
-            }
-        };
-        worker.execute();
+
+                String plantName = selectPlant(
+                    "Select recycling plant for " + dumpsterIds.size() + " dumpsters", plants);
+                if (plantName != null) {
+                    // El botón sigue desactivado hasta que termine la asignación
+                    assignPlantToDumpsters(dumpsterIds, plantName);
+                } else {
+                    btnAssignSelected.setEnabled(true);
+                }
+            },
+            ex -> {
+                btnAssignSelected.setEnabled(true);
+                showError("Error loading plants", ex);
+            });
     }
 
-    private void assignPlantToDumpster(Dumpster dumpster, String plantName, 
-                                       List<RecyclingPlant> plants, int modelRow) {
-        SwingWorker<Boolean, Void> worker = new SwingWorker<>() {
-            @Override
-            protected Boolean doInBackground() throws Exception {
-                return dumpsterController.assignDumpsterToPlant(dumpster.getId(), plantName);
-            }
+    private void assignPlantToDumpsters(List<Long> dumpsterIds, String plantName) {
+        btnAssignSelected.setEnabled(false);
+        updateStatus("Assigning " + dumpsterIds.size() + " dumpsters...");
 
-            @Override
-            protected void done() {
-                try {
-                    Boolean success = get();
-                    
-                    if (success) {
-                        RecyclingPlant selectedPlant = plants.stream()
-                            .filter(p -> p.getName().equals(plantName))
-                            .findFirst()
-                            .orElse(null);
-
-                        if (selectedPlant != null) {
-                            dumpster.setAssignedPlant(selectedPlant);
-                            tableDumpsters.setValueAt(selectedPlant, modelRow, 7);
+        EdtCompletion.deliver(dumpsterController.assignDumpstersToPlantAsync(dumpsterIds, plantName),
+            result -> {
+                int assigned = result.getAssignedIds().size();
+
+                if (result.isSuccess()) {
+                    JOptionPane.showMessageDialog(MainPanel.this,
+                        assigned + " dumpsters assigned to " + plantName,
+                        "Success",
+                        JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    StringBuilder message = new StringBuilder()
+                        .append(assigned).append(" of ").append(dumpsterIds.size())
+                        .append(" dumpsters assigned to ").append(plantName).append('.');
+                    for (BulkAssignResult.BatchResult batch : result.getBatches()) {
+                        if (!batch.isSuccess()) {
+                            message.append("\n").append(batch.getDumpsterIds().size())
+                                .append(" failed: ").append(batch.getMessage());
                         }
-                        
-                        JOptionPane.showMessageDialog(MainPanel.this, 
-                            "Plant correctly assigned",
-                            "Success",
-                            JOptionPane.INFORMATION_MESSAGE);
-                        
-                        loadDumpsters();
                     }
-                } catch (Exception ex) {
-                    showError("Error assigning plant", ex);
+                    JOptionPane.showMessageDialog(MainPanel.this,
+                        message.toString(),
+                        "Partial assignment",
+                        JOptionPane.WARNING_MESSAGE);
                 }
-            }
-        };
-        worker.execute();
+            },
+            ex -> showError("Error assigning plant", ex),
+            () -> btnAssignSelected.setEnabled(true));
+    }
+
+    /**
+     * El controlador aplica la planta nueva al almacén antes de enviar la petición, así que la
+     * fila la muestra en cuanto se elige por el listener. Si el servidor la rechaza, el controlador
+     * deshace el cambio y la fila vuelve a su valor por el mismo camino; no se recarga la flota.
+     */
+    private void assignPlantToDumpster(Dumpster dumpster, String plantName) {
+        EdtCompletion.deliver(dumpsterController.assignDumpsterToPlantAsync(dumpster.getId(), plantName),
+            success -> {
+                if (success) {
+                    updateStatus("✓ Dumpster #" + dumpster.getId() + " assigned to " + plantName);
+                } else {
+                    JOptionPane.showMessageDialog(MainPanel.this,
+                        "The server did not accept the assignment",
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE);
+                }
+            },
+            ex -> showError("Error assigning plant", ex));
     }
 
     private JPanel createFooter() {
@@ -319,67 +414,186 @@ public class MainPanel extends JPanel {
 
         JPanel legend = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
         legend.setOpaque(false);
+
+        lblLive = new JLabel();
+        lblLive.setFont(new Font("Segoe UI", Font.PLAIN, 11));
+        showLiveState(DumpsterEventStream.State.CONNECTING);
+        legend.add(lblLive);
         
-        legend.add(createLegendLabel("Low", new Color(76, 175, 80)));
-        legend.add(createLegendLabel("Medium", new Color(255, 152, 0)));
-        legend.add(createLegendLabel("Full", new Color(244, 67, 54)));
+        legend.add(createLegendLabel(FillLevel.GREEN));
+        legend.add(createLegendLabel(FillLevel.ORANGE));
+        legend.add(createLegendLabel(FillLevel.RED));
 
         footer.add(legend, BorderLayout.EAST);
         return footer;
     }
 
-    private JLabel createLegendLabel(String text, Color color) {
-        JLabel lbl = new JLabel(" " + text + " ");
+    private void showLiveState(DumpsterEventStream.State state) {
+        switch (state) {
+            case CONNECTED -> {
+                lblLive.setText("● Live");
+                lblLive.setForeground(FillLevel.GREEN.getColor());
+            }
+            case CONNECTING, DISCONNECTED -> {
+                lblLive.setText("○ Connecting...");
+                lblLive.setForeground(new Color(150, 150, 150));
+            }
+            case CLOSED -> {
+                lblLive.setText("○ Auto-refresh");
+                lblLive.setForeground(new Color(150, 150, 150));
+            }
+        }
+    }
+
+    private JLabel createLegendLabel(FillLevel level) {
+        JLabel lbl = new JLabel(" " + level.getLabel() + " ");
         lbl.setOpaque(true);
-        lbl.setBackground(color);
+        lbl.setBackground(level.getColor());
         lbl.setForeground(Color.WHITE);
         lbl.setFont(new Font("Segoe UI", Font.PLAIN, 11));
         lbl.setBorder(BorderFactory.createEmptyBorder(3, 8, 3, 8));
         return lbl;
     }
 
-    private void loadDumpsters() {
+    /**
+     * @param revalidate true para consultar al servidor aunque la copia de la sesión siga vigente
+     */
+    private void loadDumpsters(boolean revalidate) {
         setButtonsEnabled(false);
         updateStatus("Loading...");
 
-        SwingWorker<List<Dumpster>, Void> worker = new SwingWorker<>() {
-            @Override
-            protected List<Dumpster> doInBackground() throws Exception {
-                return dumpsterController.getAllDumpsters();
+        CompletableFuture<List<Dumpster>> load = revalidate
+            ? dumpsterController.refreshDumpstersAsync()
+            : dumpsterController.getAllDumpstersAsync();
+        EdtCompletion.deliver(load,
+            dumpsters -> {
+                // Las filas llegan por el listener del almacén; aquí solo se cubre
+                // el caso de una copia ya cargada que no genera cambios
+                if (tableModel.getRowCount() == 0 && !dumpsters.isEmpty()) {
+                    tableModel.setDumpsters(dumpsters);
+                }
+                updateStatus("✓ " + dumpsters.size() + " dumpsters");
+            },
+            ex -> {
+                showError("Error loading dumpsters", ex);
+                updateStatus("Error");
+            },
+            () -> setButtonsEnabled(true));
+    }
+
+    /**
+     * Exporta a CSV el historial de los dumpsters seleccionados (o de todos si no hay selección)
+     */
+    private void handleUsageExport() {
+        int[] selectedRows = tableDumpsters.getSelectedRows();
+        List<Long> dumpsterIds = new ArrayList<>();
+        if (selectedRows.length > 0) {
+            for (int row : selectedRows) {
+                dumpsterIds.add(tableModel.getDumpsterAt(tableDumpsters.convertRowIndexToModel(row)).getId());
+            }
+        } else {
+            for (int row = 0; row < tableModel.getRowCount(); row++) {
+                dumpsterIds.add(tableModel.getDumpsterAt(row).getId());
             }
+        }
+        if (dumpsterIds.isEmpty()) {
+            JOptionPane.showMessageDialog(this,
+                "There are no dumpsters to export",
+                "Info",
+                JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
 
-            @Override
-            protected void done() {
-                try {
-                    List<Dumpster> dumpsters = get();
-                    currentDumpsters = dumpsters;
-                    displayDumpsters(dumpsters);
-                    updateStatus("✓ " + dumpsters.size() + " dumpsters");
-                } catch (Exception ex) {
-                    showError("Error loading dumpsters", ex);
-                    updateStatus("Error");
-                } finally {
-                    setButtonsEnabled(true);
-                }
+        JTextField txtStart = new JTextField(LocalDate.now().minusDays(30).toString(), 10);
+        JTextField txtEnd = new JTextField(LocalDate.now().toString(), 10);
+        JPanel rangePanel = new JPanel(new GridLayout(2, 2, 6, 6));
+        rangePanel.add(new JLabel("From (yyyy-MM-dd):"));
+        rangePanel.add(txtStart);
+        rangePanel.add(new JLabel("To (yyyy-MM-dd):"));
+        rangePanel.add(txtEnd);
+        int option = JOptionPane.showConfirmDialog(this, rangePanel,
+            "Export usage of " + dumpsterIds.size() + " dumpsters",
+            JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (option != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        LocalDate startDate;
+        LocalDate endDate;
+        try {
+            startDate = LocalDate.parse(txtStart.getText().trim());
+            endDate = LocalDate.parse(txtEnd.getText().trim());
+        } catch (java.time.format.DateTimeParseException ex) {
+            JOptionPane.showMessageDialog(this,
+                "Dates must use the format yyyy-MM-dd",
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new java.io.File("usage-" + startDate + "-" + endDate + ".csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        ProgressMonitor monitor = new ProgressMonitor(this,
+            "Exporting usage history", "Starting...", 0, dumpsterIds.size());
+        monitor.setMillisToDecideToPopup(200);
+        btnExportUsage.setEnabled(false);
+        updateStatus("Exporting usage of " + dumpsterIds.size() + " dumpsters...");
+
+        CompletableFuture<UsageExportResult> export = dumpsterController.exportUsageAsync(
+            dumpsterIds, startDate, endDate, chooser.getSelectedFile().toPath(),
+            (completed, total, records) -> SwingUtilities.invokeLater(() -> {
+                monitor.setProgress(completed);
+                monitor.setNote(completed + " of " + total + " dumpsters, " + records + " records");
+            })
+        );
+
+        // El monitor no avisa de la cancelación; se consulta mientras dura la exportación
+        Timer cancelCheck = new Timer(250, e -> {
+            if (monitor.isCanceled()) {
+                export.cancel(true);
             }
-        };
-        worker.execute();
-    }
+        });
+        cancelCheck.start();
 
-    private void displayDumpsters(List<Dumpster> dumpsters) {
-        tableModel.setRowCount(0);
-        for (Dumpster d : dumpsters) {
-            tableModel.addRow(new Object[]{
-                d.getId(),
-                d.getLocation(),
-                d.getPostalCode(),
-                d.getCapacity() + " L",
-                d.getCurrentFill() + " L",
-                String.format("%.1f%%", d.getFillPercentage()),
-                null,
-                d.getAssignedPlant() != null ? d.getAssignedPlant() : null
+        // Se cierra el monitor antes de mostrar el resultado, que es modal
+        Runnable closeMonitor = () -> {
+            cancelCheck.stop();
+            monitor.close();
+            btnExportUsage.setEnabled(true);
+        };
+        EdtCompletion.deliver(export,
+            result -> {
+                closeMonitor.run();
+                updateStatus("✓ " + result.getRecordCount() + " usage records exported");
+                if (result.isSuccess()) {
+                    JOptionPane.showMessageDialog(this,
+                        result.getRecordCount() + " records exported to " + result.getFile(),
+                        "Success",
+                        JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this,
+                        result.getRecordCount() + " records exported to " + result.getFile() + ".\n"
+                            + result.getFailures().size() + " of " + result.getDumpsterCount()
+                            + " dumpsters could not be exported: " + result.getFailures().keySet(),
+                        "Partial export",
+                        JOptionPane.WARNING_MESSAGE);
+                }
+            },
+            ex -> {
+                closeMonitor.run();
+                updateStatus("Error");
+                showError("Error exporting usage", ex);
+            },
+            () -> {
+                closeMonitor.run();
+                if (export.isCancelled()) {
+                    updateStatus("Export cancelled");
+                }
             });
-        }
     }
 
     private void showDumpsterDetails() {
@@ -387,7 +601,7 @@ public class MainPanel extends JPanel {
         if (row == -1) return;
         
         row = tableDumpsters.convertRowIndexToModel(row);
-        Dumpster d = currentDumpsters.get(row);
+        Dumpster d = tableModel.getDumpsterAt(row);
         
         String details = String.format(
     		"ID: %d\n" +
@@ -423,31 +637,165 @@ public class MainPanel extends JPanel {
         );
 
         if (confirm == JOptionPane.YES_OPTION) {
-            SwingWorker<AuthController.LogoutResult, Void> worker = new SwingWorker<>() {
-                @Override
-                protected AuthController.LogoutResult doInBackground() {
-                    return authController.logout();
-                }
-
-                @Override
-                protected void done() {
-                    try {
-                        AuthController.LogoutResult result = get();
-                        parentFrame.returnToLogin();
-                        
-                        if (!result.isSuccess()) {
-                            System.err.println("Warning: " + result.getMessage());
-                        }
-                    } catch (Exception ex) {
-                        parentFrame.returnToLogin();
+            EdtCompletion.deliver(authController.logoutAsync(),
+                result -> {
+                    parentFrame.returnToLogin();
+                    
+                    if (!result.isSuccess()) {
+                        System.err.println("Warning: " + result.getMessage());
                     }
-                }
-            };
-            worker.execute();
+                },
+                ex -> parentFrame.returnToLogin());
         }
     }
 
 
+    /**
+     * Pinta la celda con el color del nivel de llenado. Los colores son constantes de
+     * FillLevel, así que pintar no crea objetos
+     */
+    private static class FillLevelRenderer extends DefaultTableCellRenderer {
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value,
+                                                       boolean isSelected, boolean hasFocus,
+                                                       int row, int column) {
+            super.getTableCellRendererComponent(table, null, isSelected, hasFocus, row, column);
+            if (!isSelected) {
+                FillLevel level = value instanceof FillLevel fillLevel ? fillLevel : FillLevel.UNKNOWN;
+                super.setBackground(level.getColor());
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Nombre de la planta asignada o botón "Assign". Reutiliza siempre los mismos
+     * componentes en lugar de crear uno por celda
+     */
+    private static class PlantRenderer implements TableCellRenderer {
+        private final DefaultTableCellRenderer label = new DefaultTableCellRenderer();
+        private final JButton button = new JButton("Assign");
+
+        PlantRenderer() {
+            button.setFont(CELL_BUTTON_FONT);
+            button.setBackground(ASSIGN_BUTTON_COLOR);
+            button.setForeground(Color.WHITE);
+            button.setFocusPainted(false);
+        }
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value,
+                                                       boolean isSelected, boolean hasFocus,
+                                                       int row, int column) {
+            if (value instanceof RecyclingPlant plant) {
+                return label.getTableCellRendererComponent(table, plant.getName(), isSelected, hasFocus, row, column);
+            }
+            return button;
+        }
+    }
+
+    /**
+     * Pinta columnas numéricas leyendo los primitivos de DumpsterTableModel, sin getValueAt.
+     * El texto se guarda por fila junto al valor del que sale: mientras el valor no cambie
+     * se reutiliza la misma cadena, así que repintar no crea objetos.
+     */
+    private abstract static class CachedTextRenderer extends DefaultTableCellRenderer {
+        private long[] keys = new long[0];
+        private String[] texts = new String[0];
+
+        CachedTextRenderer(int alignment) {
+            setHorizontalAlignment(alignment);
+        }
+
+        /** Valor de la celda que determina su texto */
+        protected abstract long keyAt(DumpsterTableModel model, int row, int column);
+
+        protected abstract String format(long key);
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value,
+                                                       boolean isSelected, boolean hasFocus,
+                                                       int row, int column) {
+            super.getTableCellRendererComponent(table, null, isSelected, hasFocus, row, column);
+            if (table.getModel() instanceof DumpsterTableModel model) {
+                int modelRow = table.convertRowIndexToModel(row);
+                long key = keyAt(model, modelRow, table.convertColumnIndexToModel(column));
+                setText(textFor(modelRow, key));
+            }
+            return this;
+        }
+
+        private String textFor(int row, long key) {
+            if (row >= texts.length) {
+                int length = Math.max(row + 1, texts.length * 2);
+                keys = Arrays.copyOf(keys, length);
+                texts = Arrays.copyOf(texts, length);
+            }
+            if (texts[row] == null || keys[row] != key) {
+                keys[row] = key;
+                texts[row] = format(key);
+            }
+            return texts[row];
+        }
+    }
+
+    private static class IdRenderer extends CachedTextRenderer {
+        IdRenderer() {
+            super(SwingConstants.RIGHT);
+        }
+
+        @Override
+        protected long keyAt(DumpsterTableModel model, int row, int column) {
+            return model.getIdAt(row);
+        }
+
+        @Override
+        protected String format(long key) {
+            return Long.toString(key);
+        }
+    }
+
+    /**
+     * Columna entera con una unidad opcional; vacía si falta el dato
+     */
+    private static class IntRenderer extends CachedTextRenderer {
+        private final String suffix;
+
+        IntRenderer(String suffix, int alignment) {
+            super(alignment);
+            this.suffix = suffix;
+        }
+
+        @Override
+        protected long keyAt(DumpsterTableModel model, int row, int column) {
+            return model.getIntAt(row, column);
+        }
+
+        @Override
+        protected String format(long key) {
+            return key != FleetColumns.NULL_INT ? key + suffix : "";
+        }
+    }
+
+    /**
+     * Porcentaje con un decimal; la clave es el porcentaje en décimas
+     */
+    private static class PercentageRenderer extends CachedTextRenderer {
+        PercentageRenderer() {
+            super(SwingConstants.LEADING);
+        }
+
+        @Override
+        protected long keyAt(DumpsterTableModel model, int row, int column) {
+            return Math.round(model.getFillPercentageAt(row) * 10);
+        }
+
+        @Override
+        protected String format(long key) {
+            return String.format("%.1f%%", key / 10.0);
+        }
+    }
+
     private void updateStatus(String message) {
         lblStatus.setText(message);
     }
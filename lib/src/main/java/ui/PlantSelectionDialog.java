@@ -0,0 +1,119 @@
+package ui;
+
+import model.RecyclingPlant;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Diálogo de selección de planta que se muestra de inmediato y va rellenando
+ * la capacidad de cada planta a medida que llegan las respuestas.
+ */
+public class PlantSelectionDialog extends JDialog {
+
+    private static final String PENDING = "…";
+
+    private final DefaultListModel<String> listModel = new DefaultListModel<>();
+    private final JList<String> plantList = new JList<>(listModel);
+    private final Map<String, Integer> rowByPlant = new HashMap<>();
+    private final List<RecyclingPlant> plants;
+    private final JLabel lblProgress = new JLabel();
+    private int resolved;
+    private String selectedPlantName;
+
+    public PlantSelectionDialog(Window owner, String message, List<RecyclingPlant> plants) {
+        super(owner, "Assign Plant", ModalityType.APPLICATION_MODAL);
+        this.plants = plants;
+
+        for (int i = 0; i < plants.size(); i++) {
+            String name = plants.get(i).getName();
+            rowByPlant.put(name, i);
+            listModel.addElement(name + " — " + PENDING);
+        }
+
+        initUI(message);
+        updateProgress();
+        setSize(380, 320);
+        setLocationRelativeTo(owner);
+    }
+
+    private void initUI(String message) {
+        JPanel content = new JPanel(new BorderLayout(0, 10));
+        content.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+
+        JLabel lblMessage = new JLabel(message);
+        lblMessage.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        content.add(lblMessage, BorderLayout.NORTH);
+
+        plantList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        plantList.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        if (!listModel.isEmpty()) {
+            plantList.setSelectedIndex(0);
+        }
+        plantList.addMouseListener(new java.awt.event.MouseAdapter() {
+            @Override
+            public void mouseClicked(java.awt.event.MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    confirmSelection();
+                }
+            }
+        });
+        content.add(new JScrollPane(plantList), BorderLayout.CENTER);
+
+        JPanel footer = new JPanel(new BorderLayout());
+        lblProgress.setFont(new Font("Segoe UI", Font.PLAIN, 11));
+        lblProgress.setForeground(new Color(100, 100, 100));
+        footer.add(lblProgress, BorderLayout.WEST);
+
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT, 8, 0));
+        JButton btnOk = new JButton("OK");
+        btnOk.addActionListener(e -> confirmSelection());
+        JButton btnCancel = new JButton("Cancel");
+        btnCancel.addActionListener(e -> dispose());
+        buttons.add(btnOk);
+        buttons.add(btnCancel);
+        footer.add(buttons, BorderLayout.EAST);
+
+        content.add(footer, BorderLayout.SOUTH);
+        setContentPane(content);
+        getRootPane().setDefaultButton(btnOk);
+    }
+
+    /**
+     * Actualiza la capacidad de una planta; debe llamarse desde el EDT
+     */
+    public void setCapacity(String plantName, Optional<Integer> capacity) {
+        Integer row = rowByPlant.get(plantName);
+        if (row == null) return;
+
+        listModel.set(row, plantName + " — " + capacity.map(c -> c + "L").orElse("?"));
+        resolved++;
+        updateProgress();
+    }
+
+    private void updateProgress() {
+        lblProgress.setText(resolved < plants.size()
+                ? "Loading capacities " + resolved + "/" + plants.size()
+                : "");
+    }
+
+    private void confirmSelection() {
+        int index = plantList.getSelectedIndex();
+        if (index == -1) return;
+
+        selectedPlantName = plants.get(index).getName();
+        dispose();
+    }
+
+    /**
+     * Muestra el diálogo (modal) y devuelve el nombre de la planta elegida, o null si se cancela
+     */
+    public String showDialog() {
+        setVisible(true);
+        return selectedPlantName;
+    }
+}
@@ -0,0 +1,45 @@
+package utils;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Utilidades para componer CompletableFuture sin perder la cancelación
+ */
+public final class Futures {
+
+    private Futures() {
+    }
+
+    /**
+     * Si el futuro derivado se cancela o termina con error antes que el original
+     * (por ejemplo por orTimeout), cancela también el original
+     */
+    public static <T> CompletableFuture<T> propagateCancellation(CompletableFuture<T> dependent,
+                                                                 CompletableFuture<?> source) {
+        dependent.whenComplete((value, error) -> {
+            if (error != null && !source.isDone()) {
+                source.cancel(true);
+            }
+        });
+        return dependent;
+    }
+
+    /**
+     * Devuelve la causa real de un error envuelto por CompletableFuture
+     */
+    public static Throwable unwrap(Throwable error) {
+        Throwable current = error;
+        while ((current instanceof CompletionException || current instanceof ExecutionException)
+                && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current;
+    }
+
+    public static boolean isCancellation(Throwable error) {
+        return unwrap(error) instanceof CancellationException;
+    }
+}
@@ -0,0 +1,51 @@
+package utils;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Ejecuta llamadas bloqueantes (HttpClient.send y las APIs síncronas de los controladores)
+ * en hilos virtuales, uno por tarea. Un hilo bloqueado en la red no ocupa un hilo del
+ * sistema, así que miles de llamadas concurrentes no se quedan esperando en un pool
+ * como ocurría con SwingWorker (limitado a 10 hilos).
+ * Cancelar el futuro devuelto interrumpe el hilo, lo que aborta la petición HTTP en curso.
+ */
+public final class ServiceExecutor {
+
+    private static final ThreadFactory THREAD_FACTORY = Thread.ofVirtual().name("service-", 0).factory();
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(THREAD_FACTORY);
+
+    private ServiceExecutor() {
+    }
+
+    public static <T> CompletableFuture<T> submit(Callable<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = EXECUTOR.submit(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                result.complete(call.call());
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Ejecutor subyacente, para componer con los métodos *Async de CompletableFuture
+     */
+    public static ExecutorService executor() {
+        return EXECUTOR;
+    }
+}
@@ -1,10 +1,13 @@
 package utils;
 
+import service.HttpTransport;
+
 public class SessionManager {
     
     private static SessionManager instance;
     private String authToken;
     private String userEmail;
+    private HttpTransport transport;
     
     private SessionManager() {
     }
@@ -36,8 +39,22 @@ public class SessionManager {
         return authToken != null && !authToken.isEmpty();
     }
     
-    public void clearSession() {
+    /**
+     * Transporte HTTP compartido de la sesión; se crea bajo demanda y se cierra al limpiar la sesión
+     */
+    public synchronized HttpTransport getTransport() {
+        if (transport == null) {
+            transport = new HttpTransport();
+        }
+        return transport;
+    }
+    
+    public synchronized void clearSession() {
         authToken = null;
         userEmail = null;
+        if (transport != null) {
+            transport.close();
+            transport = null;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,229 @@
+package service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import model.Dumpster;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de DumpsterEventStream contra un servidor SSE local
+ */
+class DumpsterEventStreamTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private HttpTransport transport;
+    private DumpsterEventStream stream;
+
+    private final List<String> lastEventIds = new CopyOnWriteArrayList<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+    private final BlockingQueue<DumpsterEventStream.State> states = new LinkedBlockingQueue<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile Script script;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        server.createContext(DumpsterEventStream.EVENTS_PATH, exchange -> {
+            int connection = connections.incrementAndGet();
+            lastEventIds.add(String.valueOf(exchange.getRequestHeaders().getFirst("Last-Event-ID")));
+            try {
+                script.serve(exchange, connection);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+        transport = new HttpTransport();
+    }
+
+    @AfterEach
+    void stopServer() {
+        if (stream != null) {
+            stream.close();
+        }
+        release.countDown();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void dispatchesEventsSplitAcrossWrites() throws Exception {
+        script = (exchange, connection) -> {
+            OutputStream out = open(exchange);
+            send(out, "id: 1\nda");
+            Thread.sleep(50);
+            send(out, "ta: {\"id\": 7, \"address\": \"Bilbao\",\n");
+            Thread.sleep(50);
+            send(out, "data: \"currentFill\": 40}\n\n");
+            hold();
+        };
+        start(null);
+
+        Dumpster dumpster = (Dumpster) next();
+        assertEquals(7L, dumpster.getId());
+        assertEquals("Bilbao", dumpster.getLocation());
+        assertEquals(40, dumpster.getCurrentFill());
+        assertEquals("1", stream.getLastEventId());
+    }
+
+    @Test
+    void dispatchesRemovalsAndSkipsMalformedPayloads() throws Exception {
+        script = (exchange, connection) -> {
+            OutputStream out = open(exchange);
+            send(out, ": heartbeat\n\n");
+            send(out, "event: dumpster\ndata: {not json\n\n");
+            send(out, "event: removed\ndata: 12\n\n");
+            send(out, "event: unknown\ndata: whatever\n\n");
+            send(out, "event: dumpster\ndata: {\"id\": 3}\n\n");
+            hold();
+        };
+        start(null);
+
+        assertEquals(12L, next());
+        assertEquals(3L, ((Dumpster) next()).getId());
+        assertNull(received.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void reconnectsAfterRetryWithLastEventId() throws Exception {
+        script = (exchange, connection) -> {
+            OutputStream out = open(exchange);
+            if (connection == 1) {
+                send(out, "retry: 100\nid: 5\ndata: {\"id\": 1}\n\n");
+                send(out, "id: 6\nevent: removed\ndata: 2\n\n");
+            } else {
+                send(out, "id: 7\ndata: {\"id\": 3}\n\n");
+                hold();
+            }
+        };
+        long started = System.nanoTime();
+        start("4");
+
+        assertEquals(1L, ((Dumpster) next()).getId());
+        assertEquals(2L, next());
+        assertEquals(3L, ((Dumpster) next()).getId());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < DumpsterEventStream.DEFAULT_RETRY.toMillis());
+        assertEquals(List.of("4", "6"), lastEventIds);
+        assertEquals("7", stream.getLastEventId());
+    }
+
+    @Test
+    void reconnectsWhenTheConnectionGoesIdle() throws Exception {
+        script = (exchange, connection) -> {
+            OutputStream out = open(exchange);
+            send(out, "retry: 100\nid: " + connection + "\ndata: {\"id\": " + connection + "}\n\n");
+            // Conexión medio abierta: no vuelve a llegar nada
+            hold();
+        };
+        stream = new DumpsterEventStream(baseUrl(), transport, JsonCodec.getDefault(), "t", listener(),
+                Duration.ofMillis(300));
+        stream.start(null);
+
+        assertEquals(1L, ((Dumpster) next()).getId());
+        assertEquals(DumpsterEventStream.State.CONNECTING, nextState());
+        assertEquals(DumpsterEventStream.State.CONNECTED, nextState());
+        assertEquals(DumpsterEventStream.State.DISCONNECTED, nextState());
+        assertEquals(2L, ((Dumpster) next()).getId());
+        assertEquals("1", lastEventIds.get(1));
+    }
+
+    @Test
+    void stopsWhenTheServerHasNoEndpoint() throws Exception {
+        script = (exchange, connection) -> exchange.sendResponseHeaders(404, -1);
+        start(null);
+
+        assertEquals(DumpsterEventStream.State.CONNECTING, nextState());
+        assertEquals(DumpsterEventStream.State.CLOSED, nextState());
+        assertEquals(1, connections.get());
+    }
+
+    private void start(String lastEventId) {
+        stream = new DumpsterEventStream(baseUrl(), transport, "t", listener());
+        stream.start(lastEventId);
+    }
+
+    private DumpsterEventStream.Listener listener() {
+        return new DumpsterEventStream.Listener() {
+            @Override
+            public void onDumpster(Dumpster dumpster) {
+                received.add(dumpster);
+            }
+
+            @Override
+            public void onRemoved(long dumpsterId) {
+                received.add(dumpsterId);
+            }
+
+            @Override
+            public void onStateChanged(DumpsterEventStream.State state) {
+                states.add(state);
+            }
+        };
+    }
+
+    private String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private Object next() throws InterruptedException {
+        Object value = received.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull(value, "No event received");
+        return value;
+    }
+
+    private DumpsterEventStream.State nextState() throws InterruptedException {
+        DumpsterEventStream.State state = states.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull(state, "No state change received");
+        return state;
+    }
+
+    private void hold() throws InterruptedException {
+        release.await();
+    }
+
+    private static OutputStream open(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        return exchange.getResponseBody();
+    }
+
+    private static void send(OutputStream out, String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private interface Script {
+        void serve(HttpExchange exchange, int connection) throws IOException, InterruptedException;
+    }
+}